@@ -0,0 +1,19 @@
+-- Migración para bases con datos: recalcula current_participant_count de las reuniones existentes
+-- Ejecutar en PostgreSQL una sola vez, antes de desplegar la versión que usa la columna como fuente de verdad
+-- (se actualiza en SQL al unirse/salir). No hace falta tras clean_database.sql, que deja las tablas vacías.
+
+BEGIN;
+
+-- Bloquear altas y bajas de participantes mientras se recalcula
+LOCK TABLE meeting_participants IN SHARE MODE;
+
+UPDATE meeting m
+SET current_participant_count = (SELECT COUNT(*) FROM meeting_participants p WHERE p.meeting_id = m.id)
+WHERE m.current_participant_count IS DISTINCT FROM (SELECT COUNT(*) FROM meeting_participants p WHERE p.meeting_id = m.id);
+
+COMMIT;
+
+-- Verificar que no quedan reuniones con el contador desalineado
+SELECT 'Reuniones desalineadas:', COUNT(*)
+FROM meeting m
+WHERE m.current_participant_count IS DISTINCT FROM (SELECT COUNT(*) FROM meeting_participants p WHERE p.meeting_id = m.id);
@@ -21,6 +21,15 @@ ADD COLUMN IF NOT EXISTS duration_minutes BIGINT;
 ALTER TABLE meeting 
 DROP COLUMN IF EXISTS max_participants;
 
+-- Las alertas usan ids de secuencia en bloques de 50 (inserciones por lotes JDBC)
+ALTER SEQUENCE IF EXISTS alerts_id_seq INCREMENT BY 50;
+
+-- Reemplazado por idx_alerts_timestamp_id (paginación por cursor)
+DROP INDEX IF EXISTS idx_alerts_timestamp;
+
+-- Vincular alertas a un war room filtra por incident_id
+CREATE INDEX IF NOT EXISTS idx_alerts_incident_id ON alerts (incident_id);
+
 -- Reiniciar secuencias (IDs) para que vuelvan a empezar desde 1
 ALTER SEQUENCE IF EXISTS meeting_participants_id_seq RESTART WITH 1;
 ALTER SEQUENCE IF EXISTS meeting_id_seq RESTART WITH 1;
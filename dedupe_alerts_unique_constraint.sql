@@ -0,0 +1,48 @@
+-- Migración para bases con datos: elimina alertas duplicadas y crea uk_alerts_packet_incident_severity
+-- Ejecutar en PostgreSQL una sola vez, antes de desplegar la versión que inserta con ON CONFLICT
+-- (packet_id, incident_id, severity). Sin la restricción esos INSERT fallan y POST /api/alerts devuelve error;
+-- ddl-auto=update no la crea mientras queden duplicados de la antigua comprobación findDuplicate.
+-- No hace falta tras clean_database.sql, que deja la tabla vacía.
+
+BEGIN;
+
+-- Bloquear inserciones de alertas mientras se depura y se crea la restricción
+LOCK TABLE alerts IN SHARE ROW EXCLUSIVE MODE;
+
+-- Conservar una alerta por (packet_id, incident_id, severity): la vinculada a una sala si la hay, si no la más antigua.
+-- Las filas con algún componente NULL nunca chocan con la restricción y se dejan tal cual.
+DELETE FROM alerts a
+USING (
+    SELECT id, ROW_NUMBER() OVER (
+        PARTITION BY packet_id, incident_id, severity
+        ORDER BY (war_room_id IS NULL), id
+    ) AS rn
+    FROM alerts
+    WHERE packet_id IS NOT NULL AND incident_id IS NOT NULL AND severity IS NOT NULL
+) d
+WHERE a.id = d.id AND d.rn > 1;
+
+-- Crear la restricción única si no existe todavía
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = 'alerts'::regclass AND conname = 'uk_alerts_packet_incident_severity') THEN
+        ALTER TABLE alerts
+        ADD CONSTRAINT uk_alerts_packet_incident_severity UNIQUE (packet_id, incident_id, severity);
+    END IF;
+END $$;
+
+COMMIT;
+
+-- Verificar que la restricción existe y que no quedan duplicados
+SELECT 'Restricción creada:', COUNT(*)
+FROM pg_constraint
+WHERE conrelid = 'alerts'::regclass AND conname = 'uk_alerts_packet_incident_severity';
+
+SELECT 'Alertas duplicadas:', COUNT(*)
+FROM (
+    SELECT 1 FROM alerts
+    WHERE packet_id IS NOT NULL AND incident_id IS NOT NULL AND severity IS NOT NULL
+    GROUP BY packet_id, incident_id, severity
+    HAVING COUNT(*) > 1
+) dup;
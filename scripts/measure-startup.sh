@@ -0,0 +1,57 @@
+#!/usr/bin/env sh
+# Time to ApplicationReadyEvent for the plain jar vs the fast-startup build (AOT + CDS).
+#
+#   docker compose up -d postgres kafka
+#   ./mvnw -Pfast-startup -DskipTests package
+#   scripts/measure-startup.sh [runs]
+#
+# Each run starts the app, waits for the "Application ready in N ms" line logged by
+# StartupTimeReporter, stops it and records N. Prints every sample and the median per variant.
+# Extra JVM flags (e.g. -Dspring.profiles.active=...) can be passed in JAVA_OPTS.
+set -eu
+
+RUNS=${1:-5}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAR_NAME=ids-ia-0.0.1-SNAPSHOT.jar
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+TIMEOUT=${STARTUP_TIMEOUT:-120}
+
+if [ ! -f "$ROOT/target/fast-startup/application.jsa" ]; then
+    echo "target/fast-startup/application.jsa missing; build with ./mvnw -Pfast-startup -DskipTests package" >&2
+    exit 1
+fi
+
+# measure <label> <dir> <jvm flags...>
+measure() {
+    label=$1; dir=$2; shift 2
+    samples=""
+    i=1
+    while [ "$i" -le "$RUNS" ]; do
+        log=$(mktemp)
+        (cd "$dir" && exec "$JAVA" ${JAVA_OPTS:-} "$@" -jar "$JAR_NAME" >"$log" 2>&1) &
+        pid=$!
+        waited=0
+        ms=""
+        while [ -z "$ms" ] && [ "$waited" -lt "$((TIMEOUT * 10))" ] && kill -0 "$pid" 2>/dev/null; do
+            sleep 0.1
+            waited=$((waited + 1))
+            ms=$(sed -n 's/.*Application ready in \([0-9]*\) ms since JVM start.*/\1/p' "$log" | head -n 1)
+        done
+        kill "$pid" 2>/dev/null || true
+        wait "$pid" 2>/dev/null || true
+        if [ -z "$ms" ]; then
+            echo "$label run $i: no ready line within ${TIMEOUT}s, log kept at $log" >&2
+            exit 1
+        fi
+        rm -f "$log"
+        echo "$label run $i: ${ms} ms"
+        samples="$samples $ms"
+        i=$((i + 1))
+    done
+    median=$(printf '%s\n' $samples | sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }')
+    echo "$label median: ${median} ms"
+}
+
+# The fast-startup jar also contains the AOT classes; the baseline runs it with AOT and CDS off
+measure baseline "$ROOT/target/fast-startup"
+measure fast-startup "$ROOT/target/fast-startup" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true
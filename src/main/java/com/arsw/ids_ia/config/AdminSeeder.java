@@ -2,11 +2,13 @@ package com.arsw.ids_ia.config;
 
 import com.arsw.ids_ia.model.User;
 import com.arsw.ids_ia.repository.UserRepository;
+import com.arsw.ids_ia.security.UserRoleChangedEvent;
 import com.arsw.ids_ia.utils.enums.Role;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -23,7 +25,7 @@ public class AdminSeeder {
     private String initialAdmins;
 
     @Bean
-    public CommandLineRunner seedAdmins(UserRepository userRepository) {
+    public CommandLineRunner seedAdmins(UserRepository userRepository, ApplicationEventPublisher events) {
         return args -> {
             if (initialAdmins == null || initialAdmins.isBlank()) {
                 logger.info("No initial admins configured (app.initial-admins)");
@@ -49,6 +51,7 @@ public class AdminSeeder {
                         .build();
 
                 userRepository.save(u);
+                events.publishEvent(new UserRoleChangedEvent(email));
                 logger.info("Created initial admin {}", email);
             }
         };
@@ -0,0 +1,45 @@
+package com.arsw.ids_ia.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Drains per-session WebSocket queues so broadcasting never blocks the request or Kafka thread
+     * that produced the event. In virtual-thread mode each drain gets its own virtual thread, so a
+     * slow socket write no longer holds one of a few shared pool threads.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService webSocketSendExecutor(@Value("${app.ws.send-threads:4}") int threads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ws-send-", 1).factory());
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ws-send-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Closes alert coalescing windows. Work per tick is a single enqueue pass, so one thread is enough.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService alertCoalesceScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ws-coalesce");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
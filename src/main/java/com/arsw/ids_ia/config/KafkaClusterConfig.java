@@ -0,0 +1,51 @@
+package com.arsw.ids_ia.config;
+
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+import com.arsw.ids_ia.kafka.ClusterNode;
+
+/**
+ * Cluster broadcast mode: WebSocket events are relayed through a Kafka topic so dashboards see
+ * events produced on any replica. Each replica consumes in its own group, starting from the end of
+ * the topic on every assignment since older events are only useful to the sessions that were
+ * connected at the time.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.ws.cluster.enabled", havingValue = "true")
+public class KafkaClusterConfig {
+
+    @Bean
+    public ClusterNode clusterNode(@Value("${app.ws.cluster.node-id:}") String nodeId) {
+        return ClusterNode.of(nodeId);
+    }
+
+    // Consumer and producer factories are not exposed as beans so Boot's defaults stay in place
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> clusterEventListenerFactory(
+            KafkaProperties kafkaProperties, ClusterNode clusterNode,
+            @Value("${app.ws.cluster.group-prefix:ids-ws-}") String groupPrefix,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupPrefix + clusterNode.id());
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new StringDeserializer()));
+        if (virtualThreads) {
+            factory.getContainerProperties().setListenerTaskExecutor(new VirtualThreadTaskExecutor("ws-cluster-relay-"));
+        }
+        return factory;
+    }
+}
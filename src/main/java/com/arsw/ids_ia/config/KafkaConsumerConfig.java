@@ -0,0 +1,116 @@
+package com.arsw.ids_ia.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import com.arsw.ids_ia.model.Alert;
+
+/**
+ * Consumer side of the alert ingestion pipeline. Detectors publish alerts as plain JSON (no type headers),
+ * so the value deserializer is pinned to {@link Alert}. Listeners receive whole poll batches and commit
+ * offsets themselves once the batch has been written to the database. A failed write is retried with
+ * capped exponential backoff and no attempt limit, so a database outage stalls ingestion instead of
+ * skipping batches. Records that can never be stored (invalid payloads, or alerts the database rejects)
+ * are dead-lettered to {@code <topic>.DLT} by the listener, so they do not hold the partition back.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.kafka.alerts.enabled", havingValue = "true", matchIfMissing = true)
+public class KafkaConsumerConfig implements DisposableBean {
+
+    @Value("${app.kafka.alerts.concurrency:1}")
+    private int concurrency;
+
+    @Value("${app.kafka.alerts.retry-interval-ms:2000}")
+    private long retryIntervalMs;
+
+    @Value("${app.kafka.alerts.retry-max-interval-ms:60000}")
+    private long retryMaxIntervalMs;
+
+    @Value("${app.kafka.alerts.dead-letter-suffix:.DLT}")
+    private String deadLetterSuffix;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Not a bean so Boot's default producer factory and template stay in place
+    private DefaultKafkaProducerFactory<String, Object> deadLetterProducerFactory;
+
+    @Bean
+    public ConsumerFactory<String, Alert> alertConsumerFactory(KafkaProperties kafkaProperties) {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        // useHeadersIfPresent=false: always bind to Alert, whatever type headers the producer sends
+        JsonDeserializer<Alert> valueDeserializer = new JsonDeserializer<>(Alert.class, false);
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(valueDeserializer));
+    }
+
+    /**
+     * Publishes unusable alert records to {@code <topic>.DLT}. Undeserializable payloads keep their original bytes.
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer alertDeadLetterRecoverer(KafkaProperties kafkaProperties) {
+        Map<Class<?>, Serializer<?>> serializers = new LinkedHashMap<>();
+        serializers.put(byte[].class, new ByteArraySerializer());
+        serializers.put(Object.class, new JsonSerializer<>());
+        deadLetterProducerFactory = new DefaultKafkaProducerFactory<>(kafkaProperties.buildProducerProperties(null),
+                new StringSerializer(), new DelegatingByTypeSerializer(serializers, true));
+        return new DeadLetterPublishingRecoverer(new KafkaTemplate<>(deadLetterProducerFactory),
+                (rec, ex) -> new TopicPartition(rec.topic() + deadLetterSuffix, -1));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Alert> alertBatchListenerFactory(
+            ConsumerFactory<String, Alert> alertConsumerFactory, DeadLetterPublishingRecoverer alertDeadLetterRecoverer) {
+        ConcurrentKafkaListenerContainerFactory<String, Alert> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(alertConsumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        if (virtualThreads) {
+            // what Boot does for its own factory; this one is built by hand
+            factory.getContainerProperties().setListenerTaskExecutor(new VirtualThreadTaskExecutor("alert-ingestion-"));
+        }
+        // A failed DB write re-delivers the whole batch until it succeeds; duplicates on redelivery are absorbed by
+        // alert dedup. Rejected alerts never get here: the listener dead-letters them and commits the rest.
+        ExponentialBackOff backOff = new ExponentialBackOff(retryIntervalMs, 2.0);
+        backOff.setMaxInterval(retryMaxIntervalMs);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(alertDeadLetterRecoverer, backOff));
+        return factory;
+    }
+
+    @Override
+    public void destroy() {
+        if (deadLetterProducerFactory != null) {
+            deadLetterProducerFactory.destroy();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.arsw.ids_ia.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control for {@code /api} requests in virtual-thread mode. Without a thread-pool bound,
+ * every request would otherwise start and queue on the Hikari pool until its connection timeout;
+ * here at most {@code permits-per-connection} requests per pooled connection run at once, and a
+ * request that cannot get a permit within {@code acquire-timeout} is answered 503 with Retry-After.
+ * Async requests (streamed exports) keep their permit until the async work completes, since that is
+ * where they use the database. Rejections are counted as ids.http.limiter.rejected.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class PoolAwareConcurrencyFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoolAwareConcurrencyFilter.class);
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final Counter rejected;
+
+    public PoolAwareConcurrencyFilter(DataSource dataSource, MeterRegistry meterRegistry,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int configuredPoolSize,
+            @Value("${app.http.concurrency.permits-per-connection:2}") int permitsPerConnection,
+            @Value("${app.http.concurrency.acquire-timeout:2s}") Duration acquireTimeout) {
+        int poolSize = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : configuredPoolSize;
+        int limit = Math.max(1, poolSize * permitsPerConnection);
+        this.permits = new Semaphore(limit, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.rejected = Counter.builder("ids.http.limiter.rejected")
+                .description("API requests answered 503 because no permit freed up in time")
+                .register(meterRegistry);
+        Gauge.builder("ids.http.limiter.in.flight", permits, p -> limit - p.availablePermits())
+                .register(meterRegistry);
+        logger.info("Virtual-thread mode: admitting {} concurrent API requests ({} pooled connections)", limit, poolSize);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setHeader("Retry-After", "1");
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+            } else {
+                permits.release();
+            }
+        }
+    }
+
+    /** Returns the permit once the async request completes, whether it finished, timed out or failed. */
+    private final class ReleaseOnComplete implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permits.release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // listeners are dropped when async processing restarts; stay registered until the final completion
+            event.getAsyncContext().addListener(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // followed by onComplete
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // followed by onComplete
+        }
+    }
+}
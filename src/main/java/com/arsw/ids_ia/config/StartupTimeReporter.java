@@ -0,0 +1,44 @@
+package com.arsw.ids_ia.config;
+
+import java.lang.management.ManagementFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Reports how long the node took to become ready, measured from JVM start so class loading and
+ * class-data-sharing effects are included (Spring's own application.ready.time starts later, at
+ * SpringApplication.run). Published as ids.startup.ready.time and logged in the line parsed by
+ * scripts/measure-startup.sh.
+ */
+@Component
+public class StartupTimeReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimeReporter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public StartupTimeReporter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onReady(ApplicationReadyEvent event) {
+        long sinceJvmStart = ManagementFactory.getRuntimeMXBean().getUptime();
+        Gauge.builder("ids.startup.ready.time", () -> sinceJvmStart)
+                .baseUnit("milliseconds")
+                .description("Time from JVM start to ApplicationReadyEvent")
+                .register(meterRegistry);
+        logger.info("Application ready in {} ms since JVM start ({} ms in Spring)", sinceJvmStart,
+                event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1);
+    }
+}
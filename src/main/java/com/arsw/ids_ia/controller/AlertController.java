@@ -7,7 +7,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -19,11 +21,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.arsw.ids_ia.dto.response.AlertPageResponse;
+import com.arsw.ids_ia.dto.response.AlertWarRoomView;
 import com.arsw.ids_ia.model.Alert;
-import com.arsw.ids_ia.model.Meeting;
+import com.arsw.ids_ia.service.AlertExportService;
 import com.arsw.ids_ia.service.AlertService;
+import com.arsw.ids_ia.service.AlertSeverityCounters;
 import com.arsw.ids_ia.service.MeetingService;
+import com.arsw.ids_ia.service.MeetingSnapshot;
 
 @RestController
 @RequestMapping("/api/alerts")
@@ -36,10 +43,15 @@ public class AlertController {
 
     private final AlertService service;
     private final MeetingService meetingService;
+    private final AlertSeverityCounters severityCounters;
+    private final AlertExportService exportService;
 
-    public AlertController(AlertService service, MeetingService meetingService) {
+    public AlertController(AlertService service, MeetingService meetingService, AlertSeverityCounters severityCounters,
+            AlertExportService exportService) {
         this.service = service;
         this.meetingService = meetingService;
+        this.severityCounters = severityCounters;
+        this.exportService = exportService;
     }
 
     @GetMapping
@@ -47,6 +59,31 @@ public class AlertController {
         return service.recent(limit);
     }
 
+    @GetMapping("/page")
+    public AlertPageResponse page(@RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false, defaultValue = "50") int limit) {
+        return service.page(cursor, limit);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", required = false, defaultValue = "ndjson") String format) {
+        AlertExportService.Format exportFormat = AlertExportService.Format.from(format);
+        StreamingResponseBody body = out -> exportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"alerts." + exportFormat.extension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Same shape as {@code GET /api/alerts/{id}} for the most recent active alerts, with war-room
+     * details joined in the database instead of looked up per alert.
+     */
+    @GetMapping("/detailed")
+    public List<Map<String, Object>> detailed(@RequestParam(value = "limit", required = false, defaultValue = "50") int limit) {
+        return service.recentWithWarRoom(limit).stream().map(this::createAlertResponse).toList();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Map<String, Object>> get(@PathVariable Long id) {
         Optional<Alert> alertOpt = service.getById(id);
@@ -72,46 +109,58 @@ public class AlertController {
     }
     
     private Map<String, Object> createAlertResponse(Alert alert) {
+        MeetingSnapshot meeting = null;
+        if (alert.getWarRoomId() != null) {
+            try {
+                meeting = meetingService.getMeetingSnapshot(alert.getWarRoomId());
+            } catch (Exception e) {
+                // If meeting not found or error, continue without meeting data
+            }
+        }
+
+        return createAlertResponse(new AlertWarRoomView(alert.getId(), alert.getIncidentId(), alert.getPacketId(),
+                alert.getSeverity(), alert.getScore(), alert.getModelVersion(), alert.getTimestamp(),
+                alert.getWarRoomId(),
+                meeting != null ? meeting.code() : null,
+                meeting != null ? meeting.startTime() : null,
+                meeting != null ? meeting.durationSeconds() : null,
+                meeting != null ? meeting.status() : null));
+    }
+
+    private Map<String, Object> createAlertResponse(AlertWarRoomView alert) {
         Map<String, Object> response = new HashMap<>();
         
         // Basic alert information
-        response.put("id", alert.getId());
-        response.put("incidentId", alert.getIncidentId());
-        response.put("packetId", alert.getPacketId());
-        response.put("severity", alert.getSeverity());
-        response.put("score", alert.getScore());
-        response.put("modelVersion", alert.getModelVersion());
-        response.put("timestamp", alert.getTimestamp());
-        response.put("createdAt", alert.getTimestamp());
-        response.put("updatedAt", alert.getTimestamp());
-        response.put("warRoomId", alert.getWarRoomId());
+        response.put("id", alert.id());
+        response.put("incidentId", alert.incidentId());
+        response.put("packetId", alert.packetId());
+        response.put("severity", alert.severity());
+        response.put("score", alert.score());
+        response.put("modelVersion", alert.modelVersion());
+        response.put("timestamp", alert.timestamp());
+        response.put("createdAt", alert.timestamp());
+        response.put("updatedAt", alert.timestamp());
+        response.put("warRoomId", alert.warRoomId());
         
         // Mock data for now - these would come from a proper incident management system
         response.put("type", "Incidente INC-2024-001");
         response.put("source", "PKT-001");
-        response.put("status", alert.getWarRoomId() != null ? "contenido" : "no-conocido");
+        response.put("status", alert.warRoomId() != null ? "contenido" : "no-conocido");
         response.put("relatedAssets", List.of());
         response.put("notes", "Agrega notas para el equipo de respuesta.");
         response.put("timeline", List.of());
         response.put("aiSummary", "El backend proporcionará un resumen con hallazgos de la IA.");
         
-        // Add meeting information if warRoomId exists
-        if (alert.getWarRoomId() != null) {
-            try {
-                Meeting meeting = meetingService.getMeetingById(alert.getWarRoomId());
-                if (meeting != null) {
-                    response.put("warRoomCode", meeting.getCode());
-                    response.put("warRoomStartTime", meeting.getStartTime() != null ? 
-                        meeting.getStartTime().atZone(ZoneOffset.UTC).toInstant().toString() : null);
-                    response.put("warRoomDuration", meeting.getDurationSeconds());
-                    
-                    // Update status based on meeting status
-                    if ("ENDED".equals(meeting.getStatus()) || "RESOLVED".equals(meeting.getStatus())) {
-                        response.put("status", "contenido");
-                    }
-                }
-            } catch (Exception e) {
-                // If meeting not found or error, continue without meeting data
+        // Add meeting information if the war room was found
+        if (alert.warRoomCode() != null) {
+            response.put("warRoomCode", alert.warRoomCode());
+            response.put("warRoomStartTime", alert.warRoomStartTime() != null ? 
+                alert.warRoomStartTime().atZone(ZoneOffset.UTC).toInstant().toString() : null);
+            response.put("warRoomDuration", alert.warRoomDuration());
+            
+            // Update status based on meeting status
+            if ("ENDED".equals(alert.warRoomStatus()) || "RESOLVED".equals(alert.warRoomStatus())) {
+                response.put("status", "contenido");
             }
         }
         
@@ -124,6 +173,12 @@ public class AlertController {
         return ResponseEntity.created(URI.create("/api/alerts/" + created.getId())).body(created);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<Alert>> createBatch(@RequestBody List<Alert> alerts) {
+        List<Alert> created = service.createBatch(alerts);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) {
@@ -137,13 +192,13 @@ public class AlertController {
 
     @GetMapping("/count/by-severity")
     public Map<String, Long> countBySeverity() {
+        // Active alerts only; served from counters maintained on write instead of loading the alerts
         Map<String, Long> counts = new HashMap<>();
-        List<Alert> allAlerts = service.recent(Integer.MAX_VALUE);
-        counts.put("total", (long) allAlerts.size());
-        counts.put(SEV_CRITICAL, allAlerts.stream().filter(a -> SEV_CRITICAL.equalsIgnoreCase(a.getSeverity())).count());
-        counts.put(SEV_HIGH, allAlerts.stream().filter(a -> SEV_HIGH.equalsIgnoreCase(a.getSeverity())).count());
-        counts.put(SEV_MEDIUM, allAlerts.stream().filter(a -> SEV_MEDIUM.equalsIgnoreCase(a.getSeverity())).count());
-        counts.put(SEV_LOW, allAlerts.stream().filter(a -> SEV_LOW.equalsIgnoreCase(a.getSeverity())).count());
+        counts.put("total", severityCounters.total());
+        counts.put(SEV_CRITICAL, severityCounters.count(SEV_CRITICAL));
+        counts.put(SEV_HIGH, severityCounters.count(SEV_HIGH));
+        counts.put(SEV_MEDIUM, severityCounters.count(SEV_MEDIUM));
+        counts.put(SEV_LOW, severityCounters.count(SEV_LOW));
         return counts;
     }
 
@@ -154,11 +209,11 @@ public class AlertController {
 
     @GetMapping("/today/count")
     public Map<String, Long> todayCount() {
-        List<Alert> todayAlerts = service.today();
+        Map<String, Long> todayBySeverity = service.todayCountBySeverity();
         Map<String, Long> counts = new HashMap<>();
-        counts.put("total", (long) todayAlerts.size());
-        counts.put(SEV_CRITICAL, todayAlerts.stream().filter(a -> SEV_CRITICAL.equalsIgnoreCase(a.getSeverity())).count());
-        counts.put(SEV_HIGH, todayAlerts.stream().filter(a -> SEV_HIGH.equalsIgnoreCase(a.getSeverity())).count());
+        counts.put("total", todayBySeverity.values().stream().mapToLong(Long::longValue).sum());
+        counts.put(SEV_CRITICAL, todayBySeverity.getOrDefault(SEV_CRITICAL, 0L));
+        counts.put(SEV_HIGH, todayBySeverity.getOrDefault(SEV_HIGH, 0L));
         return counts;
     }
 
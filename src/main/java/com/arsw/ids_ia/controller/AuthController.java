@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -18,6 +19,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.arsw.ids_ia.model.User;
 import com.arsw.ids_ia.repository.UserRepository;
+import com.arsw.ids_ia.security.UserRoleChangedEvent;
 import com.arsw.ids_ia.utils.enums.Role;
 
 import lombok.RequiredArgsConstructor;
@@ -32,6 +34,7 @@ public class AuthController {
 
     private final JwtDecoder jwtDecoder;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher events;
     
     @Value("${app.initial-admins:}")
     private String initialAdmins;
@@ -92,7 +95,9 @@ public class AuthController {
                     .role(role)
                     .build();
             
-            return userRepository.save(newUser);
+            User saved = userRepository.save(newUser);
+            events.publishEvent(new UserRoleChangedEvent(email));
+            return saved;
         });
         
         // Get authorities and extract role
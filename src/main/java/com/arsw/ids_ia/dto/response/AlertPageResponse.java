@@ -0,0 +1,13 @@
+package com.arsw.ids_ia.dto.response;
+
+import java.util.List;
+
+import com.arsw.ids_ia.model.Alert;
+
+/**
+ * One page of the active alert feed; {@code nextCursor} is null on the last page.
+ */
+public record AlertPageResponse(
+    List<Alert> items,
+    String nextCursor
+) {}
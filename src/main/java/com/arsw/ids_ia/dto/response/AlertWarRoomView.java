@@ -0,0 +1,23 @@
+package com.arsw.ids_ia.dto.response;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * An alert together with the war room it is linked to, read in one query; the war-room
+ * columns are null when the alert has none.
+ */
+public record AlertWarRoomView(
+    Long id,
+    String incidentId,
+    String packetId,
+    String severity,
+    Double score,
+    String modelVersion,
+    Instant timestamp,
+    Long warRoomId,
+    String warRoomCode,
+    LocalDateTime warRoomStartTime,
+    Long warRoomDuration,
+    String warRoomStatus
+) {}
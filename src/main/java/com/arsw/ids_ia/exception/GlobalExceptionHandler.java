@@ -1,5 +1,7 @@
 package com.arsw.ids_ia.exception;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -9,6 +11,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final String ALERT_DUPLICATE_CONSTRAINT = "uk_alerts_packet_incident_severity";
+
     @ExceptionHandler(UnauthorizedException.class)
     public ResponseEntity<String> handleUnauthorizedException(UnauthorizedException e) {
         return ResponseEntity
@@ -23,10 +27,38 @@ public class GlobalExceptionHandler {
                 .body(e.getMessage());
     }
 
+    /**
+     * Only a batch that lost the race on the alert unique constraint is worth retrying; any other
+     * integrity violation (NOT NULL, foreign keys) is rethrown to keep the default error handling.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> handleDataIntegrityViolationException(DataIntegrityViolationException e) {
+        if (!violates(e, ALERT_DUPLICATE_CONSTRAINT)) {
+            throw e;
+        }
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body("Conflicting write, please retry");
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<String> handleValidationException(MethodArgumentNotValidException e) {
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
                 .body("Validation error: " + e.getBindingResult().getAllErrors().get(0).getDefaultMessage());
     }
-}
\ No newline at end of file
+
+    private static boolean violates(Throwable e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && constraint.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+            // JDBC batch failures may only carry the name in the driver message
+            if (cause.getMessage() != null && cause.getMessage().contains(constraint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,113 @@
+package com.arsw.ids_ia.kafka;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import com.arsw.ids_ia.model.Alert;
+import com.arsw.ids_ia.service.AlertService;
+
+/**
+ * Consumes alerts published by the detectors and stores each poll batch through
+ * {@link AlertService#createBatch}. Offsets are committed only after the batch is persisted,
+ * so a crash or DB failure leads to redelivery rather than lost alerts. Records that are not
+ * valid alerts, or that the database rejects outright, are dead-lettered before the batch is
+ * acknowledged.
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.alerts.enabled", havingValue = "true", matchIfMissing = true)
+public class AlertKafkaListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertKafkaListener.class);
+    private static final LogAccessor headerLogger = new LogAccessor(AlertKafkaListener.class);
+
+    private final AlertService alertService;
+    private final DeadLetterPublishingRecoverer deadLetters;
+
+    public AlertKafkaListener(AlertService alertService,
+            @Qualifier("alertDeadLetterRecoverer") DeadLetterPublishingRecoverer deadLetters) {
+        this.alertService = alertService;
+        this.deadLetters = deadLetters;
+    }
+
+    @KafkaListener(id = "alert-ingestion", idIsGroup = false, topics = "${app.kafka.alerts.topic:ids-alerts}",
+            containerFactory = "alertBatchListenerFactory")
+    public void onAlerts(List<ConsumerRecord<String, Alert>> records, Acknowledgment ack) {
+        List<ConsumerRecord<String, Alert>> valid = new ArrayList<>(records.size());
+        List<Alert> alerts = new ArrayList<>(records.size());
+        List<ConsumerRecord<String, Alert>> poison = new ArrayList<>();
+        for (ConsumerRecord<String, Alert> rec : records) {
+            if (rec.value() == null) {
+                // ErrorHandlingDeserializer yields null for payloads that are not valid alerts (tombstones carry no error)
+                poison.add(rec);
+                continue;
+            }
+            valid.add(rec);
+            alerts.add(rec.value());
+        }
+
+        if (!alerts.isEmpty()) {
+            try {
+                alertService.createBatch(alerts);
+            } catch (RuntimeException e) {
+                if (!isRejected(e)) {
+                    throw e;
+                }
+                logger.warn("Alert batch of {} rejected ({}); storing its records one by one", alerts.size(), e.getMessage());
+                storeOneByOne(valid);
+            }
+        }
+        // Synchronous sends after the write: a failure here redelivers the batch, whose alerts dedup absorbs
+        for (ConsumerRecord<String, Alert> rec : poison) {
+            DeserializationException cause = SerializationUtils.getExceptionFromHeader(rec,
+                    SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, headerLogger);
+            if (cause != null) {
+                logger.warn("Dead-lettering undeserializable alert record {}-{}@{}", rec.topic(), rec.partition(), rec.offset());
+                deadLetters.accept(rec, cause);
+            }
+        }
+        ack.acknowledge();
+        logger.debug("Consumed {} alert records ({} stored or deduplicated)", records.size(), alerts.size());
+    }
+
+    /**
+     * Writes each record in its own transaction so one bad alert cannot hold back the rest of the batch.
+     * Rejected records are dead-lettered; any other failure still redelivers the whole batch, whose already
+     * stored alerts dedup absorbs.
+     */
+    private void storeOneByOne(List<ConsumerRecord<String, Alert>> records) {
+        for (ConsumerRecord<String, Alert> rec : records) {
+            try {
+                alertService.createBatch(List.of(rec.value()));
+            } catch (RuntimeException e) {
+                if (!isRejected(e)) {
+                    throw e;
+                }
+                logger.warn("Dead-lettering rejected alert record {}-{}@{}: {}", rec.topic(), rec.partition(), rec.offset(),
+                        e.getMessage());
+                deadLetters.accept(rec, e);
+            }
+        }
+    }
+
+    /**
+     * Failures that retrying the same alert can never fix, such as a value that does not fit its column. Connection
+     * and transaction failures are not among them: those wait for the database to come back.
+     */
+    private static boolean isRejected(RuntimeException e) {
+        return e instanceof DataIntegrityViolationException || e instanceof IllegalArgumentException;
+    }
+}
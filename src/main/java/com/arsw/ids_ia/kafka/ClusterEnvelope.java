@@ -0,0 +1,10 @@
+package com.arsw.ids_ia.kafka;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * WebSocket event as relayed between replicas. {@code nodeId}/{@code incarnation}/{@code eventId}
+ * identify the broadcast so receivers can drop their own events and redeliveries.
+ */
+public record ClusterEnvelope(String nodeId, String incarnation, long eventId, String type, JsonNode payload) {
+}
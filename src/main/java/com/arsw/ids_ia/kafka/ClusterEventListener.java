@@ -0,0 +1,93 @@
+package com.arsw.ids_ia.kafka;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import com.arsw.ids_ia.utils.cache.BoundedTtlCache;
+import com.arsw.ids_ia.ws.TrafficSocketHandler;
+import com.arsw.ids_ia.ws.event.WsEvent;
+import com.arsw.ids_ia.ws.event.WsEventTypes;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Receives events relayed by other replicas and fans them out to this node's sessions. Events
+ * from this process were already delivered locally and are skipped; redeliveries after a rebalance
+ * are dropped by node/incarnation/event id. On assignment the consumer seeks to the end of the
+ * topic: events from before this process started are of no use to the sessions connected here.
+ */
+@Component
+@ConditionalOnProperty(name = "app.ws.cluster.enabled", havingValue = "true")
+public class ClusterEventListener implements ConsumerSeekAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterEventListener.class);
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private final BoundedTtlCache<String, Boolean> seen = new BoundedTtlCache<>(50_000, Duration.ofMinutes(10));
+    private final TrafficSocketHandler socketHandler;
+    private final ClusterNode node;
+    private final MeterRegistry meterRegistry;
+
+    public ClusterEventListener(TrafficSocketHandler socketHandler, ClusterNode node, MeterRegistry meterRegistry) {
+        this.socketHandler = socketHandler;
+        this.node = node;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @KafkaListener(id = "ws-cluster-relay", idIsGroup = false, topics = "${app.ws.cluster.topic:ids-ws-events}",
+            containerFactory = "clusterEventListenerFactory")
+    public void onEnvelope(String value) {
+        ClusterEnvelope envelope;
+        WsEvent event;
+        try {
+            envelope = mapper.readValue(value, ClusterEnvelope.class);
+            Class<? extends WsEvent> type = WsEventTypes.broadcastType(envelope.type());
+            if (type == null || envelope.payload() == null) {
+                count("invalid");
+                logger.warn("Ignoring cluster event of unknown type {}", envelope.type());
+                return;
+            }
+            event = mapper.treeToValue(envelope.payload(), type);
+        } catch (Exception e) {
+            count("invalid");
+            logger.warn("Ignoring unreadable cluster event: {}", e.getMessage());
+            return;
+        }
+
+        if (node.id().equals(envelope.nodeId()) && node.incarnation().equals(envelope.incarnation())) {
+            count("own");
+            return;
+        }
+        String key = envelope.nodeId() + ":" + envelope.incarnation() + ":" + envelope.eventId();
+        if (seen.get(key) != null) {
+            count("duplicate");
+            return;
+        }
+        seen.put(key, Boolean.TRUE);
+        count("delivered");
+        socketHandler.broadcastLocal(event);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        // The group id is stable across restarts, so its committed offset would replay stale events
+        callback.seekToEnd(assignments.keySet());
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("ids.ws.cluster.received", "result", result).increment();
+    }
+}
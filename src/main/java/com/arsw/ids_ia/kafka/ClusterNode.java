@@ -0,0 +1,18 @@
+package com.arsw.ids_ia.kafka;
+
+import java.util.UUID;
+
+/**
+ * Identity of this replica in cluster broadcast mode. {@code id} is stable across restarts (it
+ * usually comes from the hostname) and names the consumer group, so every replica receives every
+ * relayed event. {@code incarnation} is random per process, so event ids, which restart at 1, never
+ * collide with those of an earlier run of the same node.
+ */
+public record ClusterNode(String id, String incarnation) {
+
+    public static ClusterNode of(String configured) {
+        return new ClusterNode(configured == null || configured.isBlank()
+                ? UUID.randomUUID().toString()
+                : configured.trim(), UUID.randomUUID().toString());
+    }
+}
@@ -0,0 +1,123 @@
+package com.arsw.ids_ia.kafka;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.arsw.ids_ia.ws.ClusterBroadcaster;
+import com.arsw.ids_ia.ws.event.WsEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Publishes each event broadcast on this node once to the cluster topic, keyed by node id so a
+ * node's events stay in order on one partition. Sends are asynchronous and best-effort: a Kafka
+ * outage costs remote dashboards live updates, never the local broadcast. Callers only enqueue;
+ * encoding and sending happen on a single publisher thread behind a bounded queue, because a send
+ * blocks for up to max.block.ms while the broker is unreachable and broadcasts are made under the
+ * coalescer lock and inside meeting transactions. Events that find the queue full are dropped.
+ */
+@Component
+@ConditionalOnProperty(name = "app.ws.cluster.enabled", havingValue = "true")
+public class KafkaClusterBroadcaster implements ClusterBroadcaster, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaClusterBroadcaster.class);
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final AtomicLong eventIds = new AtomicLong();
+    private final DefaultKafkaProducerFactory<String, String> producerFactory;
+    private final KafkaTemplate<String, String> template;
+    private final ClusterNode node;
+    private final String topic;
+    private final Counter published;
+    private final Counter failed;
+    private final Counter dropped;
+    private final ThreadPoolExecutor publisher;
+
+    public KafkaClusterBroadcaster(KafkaProperties kafkaProperties, ClusterNode node, MeterRegistry meterRegistry,
+            @Value("${app.ws.cluster.topic:ids-ws-events}") String topic,
+            @Value("${app.ws.cluster.publish-queue-capacity:10000}") int queueCapacity,
+            @Value("${app.ws.cluster.max-block:1s}") Duration maxBlock) {
+        Map<String, Object> props = kafkaProperties.buildProducerProperties(null);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        // Bounds how long the publisher thread waits for metadata or buffer space (60s by default)
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlock.toMillis());
+        this.producerFactory = new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new StringSerializer());
+        this.template = new KafkaTemplate<>(producerFactory);
+        this.node = node;
+        this.topic = topic;
+        this.published = Counter.builder("ids.ws.cluster.published").register(meterRegistry);
+        this.failed = Counter.builder("ids.ws.cluster.publish.failed").register(meterRegistry);
+        this.dropped = Counter.builder("ids.ws.cluster.publish.dropped")
+                .description("Events not relayed because the publish queue was full")
+                .register(meterRegistry);
+        // One thread keeps this node's events in order on the topic
+        this.publisher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ws-cluster-publish");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> dropped.increment());
+    }
+
+    @Override
+    public void publish(WsEvent event) {
+        publisher.execute(() -> send(event));
+    }
+
+    private void send(WsEvent event) {
+        String value;
+        try {
+            ClusterEnvelope envelope = new ClusterEnvelope(node.id(), node.incarnation(), eventIds.incrementAndGet(), event.type(),
+                    mapper.valueToTree(event));
+            value = mapper.writeValueAsString(envelope);
+        } catch (Exception e) {
+            logger.warn("Failed to encode {} for cluster relay: {}", event.type(), e.getMessage());
+            failed.increment();
+            return;
+        }
+        try {
+            template.send(topic, node.id(), value).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    failed.increment();
+                    logger.warn("Failed to relay {} to cluster topic {}: {}", event.type(), topic, ex.getMessage());
+                } else {
+                    published.increment();
+                }
+            });
+        } catch (Exception e) {
+            // max.block.ms ran out before the record could be handed to the producer
+            failed.increment();
+            logger.warn("Failed to relay {} to cluster topic {}: {}", event.type(), topic, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        publisher.shutdown();
+        publisher.awaitTermination(5, TimeUnit.SECONDS);
+        producerFactory.destroy();
+    }
+}
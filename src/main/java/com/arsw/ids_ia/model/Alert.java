@@ -7,17 +7,30 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
-@Table(name = "alerts")
+@Table(name = "alerts",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_alerts_packet_incident_severity", columnNames = {"packet_id", "incident_id", "severity"}),
+        indexes = {
+                @Index(name = "idx_alerts_timestamp_id", columnList = "timestamp, id"),
+                @Index(name = "idx_alerts_incident_id", columnList = "incident_id")
+        })
 public class Alert {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence-based ids (pooled in blocks of 50) let Hibernate batch INSERTs; IDENTITY forces one round trip per row
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alerts_seq")
+    @SequenceGenerator(name = "alerts_seq", sequenceName = "alerts_id_seq", allocationSize = 50)
     private Long id;
 
+    @Column(name = "packet_id")
     private String packetId;
+    @Column(name = "incident_id")
     private String incidentId;
     private String severity;
     private Double score;
@@ -3,6 +3,7 @@ package com.arsw.ids_ia.model;
 import java.time.LocalDateTime;
 import java.util.Set;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
@@ -50,15 +51,13 @@ public class Meeting {
     )
     private Set<User> participants;
 
+    // Mantenido con UPDATE atómicos al unirse/salir (MeetingRepository.adjustParticipantCount);
+    // no se sobrescribe al guardar la entidad para no pisar incrementos concurrentes
+    @Column(name = "current_participant_count", updatable = false)
     private Integer currentParticipantCount;
     private String status; // ACTIVE, ENDED
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cancelled_by_id")
     private User cancelledBy;
-
-    // Method to get current participant count from participants set
-    public Integer getCurrentParticipantCount() {
-        return participants != null ? participants.size() : 0;
-    }
 }
\ No newline at end of file
@@ -1,24 +1,93 @@
 package com.arsw.ids_ia.repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.arsw.ids_ia.dto.response.AlertWarRoomView;
 import com.arsw.ids_ia.model.Alert;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface AlertRepository extends JpaRepository<Alert, Long> {
-    List<Alert> findAllByOrderByTimestampDesc(Pageable pageable);
+    // Server-side cursor: PostgreSQL only honours the fetch size inside a transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Alert> streamAllByOrderByTimestampAscIdAsc();
+
+    // Range scans on idx_alerts_timestamp_id: cost follows the size of the range, not of the table
+    List<Alert> findByTimestampAfterOrderByTimestampDesc(Instant from);
+
+    @Query("SELECT LOWER(a.severity), COUNT(a) FROM Alert a WHERE a.timestamp > :from GROUP BY LOWER(a.severity)")
+    List<Object[]> countSinceGroupBySeverity(@Param("from") Instant from);
     
     @Query("SELECT a FROM Alert a WHERE a.packetId = :packetId AND a.incidentId = :incidentId AND a.severity = :severity")
     Optional<Alert> findDuplicate(@Param("packetId") String packetId, @Param("incidentId") String incidentId, @Param("severity") String severity);
     
-    List<Alert> findByIncidentId(String incidentId);
+    /**
+     * Inserts the alert unless one with the same packetId + incidentId + severity already exists
+     * (uk_alerts_packet_incident_severity). Returns the new id, or empty when the row was a duplicate.
+     * Existing databases need dedupe_alerts_unique_constraint.sql first, or the ON CONFLICT target is missing.
+     */
+    @Transactional
+    @Query(value = "INSERT INTO alerts (id, packet_id, incident_id, severity, score, model_version, timestamp, war_room_id) "
+            + "VALUES (nextval('alerts_id_seq'), :packetId, :incidentId, :severity, CAST(:score AS double precision), "
+            + "CAST(:modelVersion AS varchar), :timestamp, CAST(:warRoomId AS bigint)) "
+            + "ON CONFLICT (packet_id, incident_id, severity) DO NOTHING RETURNING id", nativeQuery = true)
+    Optional<Long> insertIfAbsent(@Param("packetId") String packetId, @Param("incidentId") String incidentId,
+            @Param("severity") String severity, @Param("score") Double score,
+            @Param("modelVersion") String modelVersion, @Param("timestamp") Instant timestamp,
+            @Param("warRoomId") Long warRoomId);
+
+    /**
+     * Batch form of {@link #insertIfAbsent}: one statement inserts every row that does not collide on
+     * uk_alerts_packet_incident_severity and skips the rest. Returns the rows that were inserted.
+     */
+    @Transactional
+    @Query(value = "INSERT INTO alerts (id, packet_id, incident_id, severity, score, model_version, timestamp, war_room_id) "
+            + "SELECT nextval('alerts_id_seq'), r.* FROM unnest(CAST(:packetIds AS varchar[]), CAST(:incidentIds AS varchar[]), "
+            + "CAST(:severities AS varchar[]), CAST(:scores AS double precision[]), CAST(:modelVersions AS varchar[]), "
+            + "CAST(:timestamps AS timestamptz[]), CAST(:warRoomIds AS bigint[])) AS r "
+            + "ON CONFLICT (packet_id, incident_id, severity) DO NOTHING "
+            + "RETURNING id, packet_id AS \"packetId\", incident_id AS \"incidentId\", severity", nativeQuery = true)
+    List<InsertedAlert> insertAllIfAbsent(@Param("packetIds") String[] packetIds, @Param("incidentIds") String[] incidentIds,
+            @Param("severities") String[] severities, @Param("scores") Double[] scores,
+            @Param("modelVersions") String[] modelVersions, @Param("timestamps") Instant[] timestamps,
+            @Param("warRoomIds") Long[] warRoomIds);
+
+    /** Id and duplicate identity of a row stored by {@link #insertAllIfAbsent}. */
+    interface InsertedAlert {
+        Long getId();
+
+        String getPacketId();
+
+        String getIncidentId();
+
+        String getSeverity();
+    }
+
+    List<Alert> findByPacketIdIn(Collection<String> packetIds);
+
+    /** Links every alert of the incident to the war room in one statement; returns the rows updated. */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Alert a SET a.warRoomId = :warRoomId WHERE a.incidentId = :incidentId")
+    int linkIncidentToWarRoom(@Param("incidentId") String incidentId, @Param("warRoomId") Long warRoomId);
     
     @Query("SELECT a FROM Alert a WHERE a.incidentId = :incidentId ORDER BY a.timestamp DESC LIMIT 1")
     Optional<Alert> findLatestByIncidentId(@Param("incidentId") String incidentId);
@@ -28,4 +97,34 @@ public interface AlertRepository extends JpaRepository<Alert, Long> {
     
     @Query("SELECT a FROM Alert a LEFT JOIN Meeting m ON a.warRoomId = m.id WHERE (m.id IS NULL OR m.status != 'ENDED') ORDER BY a.timestamp DESC")
     List<Alert> findActiveAlertsOrderByTimestampDesc(Pageable pageable);
+
+    // Keyset pages over idx_alerts_timestamp_id: each page seeks straight to its cursor instead of skipping rows.
+    // Legacy rows without a timestamp cannot be positioned by a cursor and are left out of the feed.
+    @Query("SELECT a FROM Alert a LEFT JOIN Meeting m ON a.warRoomId = m.id WHERE (m.id IS NULL OR m.status != 'ENDED') "
+            + "AND a.timestamp IS NOT NULL ORDER BY a.timestamp DESC, a.id DESC")
+    List<Alert> findActivePage(Limit limit);
+
+    // "a.timestamp <= :timestamp" is the index range bound; the OR only filters the rows that share the cursor's timestamp
+    @Query("SELECT a FROM Alert a LEFT JOIN Meeting m ON a.warRoomId = m.id WHERE (m.id IS NULL OR m.status != 'ENDED') "
+            + "AND a.timestamp <= :timestamp AND (a.timestamp < :timestamp OR a.id < :id) ORDER BY a.timestamp DESC, a.id DESC")
+    List<Alert> findActivePageAfter(@Param("timestamp") Instant timestamp, @Param("id") Long id, Limit limit);
+
+    // Active alerts with their war room joined in, so list views need no per-alert meeting lookup
+    @Query("SELECT new com.arsw.ids_ia.dto.response.AlertWarRoomView(a.id, a.incidentId, a.packetId, a.severity, a.score, "
+            + "a.modelVersion, a.timestamp, a.warRoomId, m.code, m.startTime, m.durationSeconds, m.status) "
+            + "FROM Alert a LEFT JOIN Meeting m ON a.warRoomId = m.id WHERE (m.id IS NULL OR m.status != 'ENDED') "
+            + "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AlertWarRoomView> findActiveWithWarRoom(Limit limit);
+
+    @Query("SELECT LOWER(a.severity), COUNT(a) FROM Alert a LEFT JOIN Meeting m ON a.warRoomId = m.id WHERE (m.id IS NULL OR m.status != 'ENDED') GROUP BY LOWER(a.severity)")
+    List<Object[]> countActiveBySeverity();
+
+    @Query("SELECT LOWER(a.severity), COUNT(a) FROM Alert a WHERE a.warRoomId = :warRoomId GROUP BY LOWER(a.severity)")
+    List<Object[]> countByWarRoomIdGroupBySeverity(@Param("warRoomId") Long warRoomId);
+
+    @Query("SELECT LOWER(a.severity), COUNT(a) FROM Alert a JOIN Meeting m ON a.warRoomId = m.id WHERE a.incidentId = :incidentId AND m.status = 'ENDED' GROUP BY LOWER(a.severity)")
+    List<Object[]> countResolvedByIncidentIdGroupBySeverity(@Param("incidentId") String incidentId);
+
+    @Query("SELECT CASE WHEN (m.id IS NULL OR m.status != 'ENDED') THEN true ELSE false END FROM Alert a LEFT JOIN Meeting m ON a.warRoomId = m.id WHERE a.id = :id")
+    Optional<Boolean> isActive(@Param("id") Long id);
 }
@@ -4,16 +4,48 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.arsw.ids_ia.model.Meeting;
+import com.arsw.ids_ia.service.MeetingSnapshot;
 
 public interface MeetingRepository extends JpaRepository<Meeting, Long> {
     Optional<Meeting> findByCode(String code);
+
+    /** Snapshots of ACTIVE meetings, without loading the entities. */
+    @Query("SELECT new com.arsw.ids_ia.service.MeetingSnapshot(m.id, m.code, m.title, m.status, m.startTime, "
+            + "m.durationSeconds, SIZE(m.participants)) FROM Meeting m WHERE m.status = 'ACTIVE'")
+    List<MeetingSnapshot> findActiveSnapshots();
     
-    List<Meeting> findByStatus(String status);
-    
-    @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Meeting m JOIN m.participants p WHERE m.id = :meetingId AND p.id = :userId")
-    boolean isUserParticipant(@Param("meetingId") Long meetingId, @Param("userId") Long userId);
+    /**
+     * Applies a join (+1) or leave (-1) to the stored participant count in a single UPDATE, so
+     * concurrent joins serialize on the row instead of overwriting each other.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Meeting m SET m.currentParticipantCount = COALESCE(m.currentParticipantCount, 0) + :delta WHERE m.id = :meetingId")
+    int adjustParticipantCount(@Param("meetingId") Long meetingId, @Param("delta") int delta);
+
+    @Query("SELECT m.currentParticipantCount FROM Meeting m WHERE m.id = :meetingId")
+    Integer findParticipantCount(@Param("meetingId") Long meetingId);
+
+    @Query("SELECT m.id FROM Meeting m WHERE m.code = :code")
+    Optional<Long> findIdByCode(@Param("code") String code);
+
+    /**
+     * Adds the user (by email) to the meeting unless already a member. Returns 1 when a row was
+     * inserted, 0 when the user was already a participant or does not exist.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO meeting_participants (meeting_id, user_id) "
+            + "SELECT :meetingId, u.id FROM _user u WHERE u.email = :email "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int addParticipant(@Param("meetingId") Long meetingId, @Param("email") String email);
+
+    /** Removes the membership row without loading the participants collection; returns rows deleted. */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM meeting_participants WHERE meeting_id = :meetingId "
+            + "AND user_id = (SELECT u.id FROM _user u WHERE u.email = :email)", nativeQuery = true)
+    int removeParticipant(@Param("meetingId") Long meetingId, @Param("email") String email);
 }
\ No newline at end of file
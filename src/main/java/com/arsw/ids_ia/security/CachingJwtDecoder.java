@@ -0,0 +1,74 @@
+package com.arsw.ids_ia.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import com.arsw.ids_ia.utils.cache.BoundedTtlCache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Remembers tokens the delegate already verified, keyed by the SHA-256 of the token, so a bearer
+ * token presented again skips signature and claim checks. An entry never outlives the token's
+ * {@code exp} (nor {@code maxTtl}); rejected tokens are not cached.
+ * Lookups are published as ids.security.jwt.cache.lookups{result=hit|miss}.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final BoundedTtlCache<String, Jwt> verified;
+    private final Duration maxTtl;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxEntries, Duration maxTtl, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.verified = new BoundedTtlCache<>(maxEntries, maxTtl);
+        this.maxTtl = maxTtl;
+
+        FunctionCounter.builder("ids.security.jwt.cache.lookups", verified, BoundedTtlCache::hitCount)
+                .tag("result", "hit")
+                .description("Bearer tokens accepted without re-verifying the signature")
+                .register(meterRegistry);
+        FunctionCounter.builder("ids.security.jwt.cache.lookups", verified, BoundedTtlCache::missCount)
+                .tag("result", "miss")
+                .description("Bearer tokens verified by the delegate decoder")
+                .register(meterRegistry);
+        Gauge.builder("ids.security.jwt.cache.size", verified, BoundedTtlCache::size)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = hash(token);
+        Jwt cached = verified.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Jwt jwt = delegate.decode(token);
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt != null) {
+            Duration ttl = Duration.between(Instant.now(), expiresAt);
+            verified.put(key, jwt, ttl.compareTo(maxTtl) < 0 ? ttl : maxTtl);
+        }
+        return jwt;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.arsw.ids_ia.security;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,6 +13,14 @@ import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtDecoders;
 import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.SupplierJwtDecoder;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 public class JwtConfig {
@@ -20,10 +31,35 @@ public class JwtConfig {
     @Value("${app.security.oauth2.client-id}")
     private String clientId;
 
+    @Value("${app.security.jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    @Value("${app.security.jwt.cache.max-ttl:10m}")
+    private Duration cacheMaxTtl;
+
+    /**
+     * Verifies tokens with the keys from {@link LocalJwkSource} when {@code app.security.jwt.jwks-location}
+     * is set; otherwise OIDC discovery against the issuer runs on the first decode instead of at startup.
+     */
     @Bean
-    public JwtDecoder jwtDecoder() {
-        NimbusJwtDecoder decoder = (NimbusJwtDecoder) JwtDecoders.fromOidcIssuerLocation(issuerUri);
+    public JwtDecoder jwtDecoder(ObjectProvider<LocalJwkSource> localKeys, MeterRegistry meterRegistry) {
+        LocalJwkSource keys = localKeys.getIfAvailable();
+        JwtDecoder verifying = keys != null
+                ? localDecoder(keys)
+                : new SupplierJwtDecoder(() -> withValidators((NimbusJwtDecoder) JwtDecoders.fromOidcIssuerLocation(issuerUri)));
+        return new CachingJwtDecoder(verifying, cacheMaxEntries, cacheMaxTtl, meterRegistry);
+    }
+
+    private NimbusJwtDecoder localDecoder(LocalJwkSource keys) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keys));
+        // Claims are checked by the Spring validators below
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return withValidators(new NimbusJwtDecoder(processor));
+    }
 
+    private NimbusJwtDecoder withValidators(NimbusJwtDecoder decoder) {
         OAuth2TokenValidator<Jwt> withIssuer = JwtValidators.createDefaultWithIssuer(issuerUri);
         OAuth2TokenValidator<Jwt> audienceValidator = new AudienceValidator(clientId);
         OAuth2TokenValidator<Jwt> combined = new DelegatingOAuth2TokenValidator<>(withIssuer, audienceValidator);
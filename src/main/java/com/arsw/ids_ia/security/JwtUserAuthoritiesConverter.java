@@ -2,28 +2,64 @@ package com.arsw.ids_ia.security;
 
 import com.arsw.ids_ia.model.User;
 import com.arsw.ids_ia.repository.UserRepository;
+import com.arsw.ids_ia.utils.cache.BoundedTtlCache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Maps the JWT email to the local user's role. Authorities are cached per email for
+ * {@code app.security.authorities-cache.ttl} and dropped on {@link UserRoleChangedEvent}; concurrent
+ * misses for the same email share one lookup, so a new user is created only once per instance.
+ * Lookups are published as ids.security.authorities.lookups{result=hit|miss}.
+ */
 @Component
 public class JwtUserAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUserAuthoritiesConverter.class);
 
     private final UserRepository userRepository;
+    private final BoundedTtlCache<String, List<GrantedAuthority>> authorities;
+    private final ConcurrentHashMap<String, CompletableFuture<List<GrantedAuthority>>> inFlight = new ConcurrentHashMap<>();
+    // Bumped on every invalidation; a lookup that started before one is not cached
+    private final AtomicLong invalidations = new AtomicLong();
 
-    public JwtUserAuthoritiesConverter(UserRepository userRepository) {
+    public JwtUserAuthoritiesConverter(UserRepository userRepository, MeterRegistry meterRegistry,
+            @Value("${app.security.authorities-cache.max-entries:10000}") int maxEntries,
+            @Value("${app.security.authorities-cache.ttl:5m}") Duration ttl) {
         this.userRepository = userRepository;
+        this.authorities = new BoundedTtlCache<>(maxEntries, ttl);
+
+        FunctionCounter.builder("ids.security.authorities.lookups", authorities, BoundedTtlCache::hitCount)
+                .tag("result", "hit")
+                .description("JWT authority mappings answered from the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("ids.security.authorities.lookups", authorities, BoundedTtlCache::missCount)
+                .tag("result", "miss")
+                .description("JWT authority mappings that read the user from the database")
+                .register(meterRegistry);
+        Gauge.builder("ids.security.authorities.size", authorities, BoundedTtlCache::size)
+                .register(meterRegistry);
     }
 
     @Override
@@ -35,6 +71,39 @@ public class JwtUserAuthoritiesConverter implements Converter<Jwt, Collection<Gr
         }
 
         String email = String.valueOf(emailObj).toLowerCase();
+        List<GrantedAuthority> cached = authorities.get(email);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<List<GrantedAuthority>> mine = new CompletableFuture<>();
+        CompletableFuture<List<GrantedAuthority>> running = inFlight.putIfAbsent(email, mine);
+        if (running != null) {
+            return running.join();
+        }
+        try {
+            long generation = invalidations.get();
+            List<GrantedAuthority> loaded = load(email);
+            if (!loaded.isEmpty() && invalidations.get() == generation) {
+                authorities.put(email, loaded);
+            }
+            mine.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(email, mine);
+        }
+    }
+
+    @EventListener
+    public void onUserRoleChanged(UserRoleChangedEvent event) {
+        invalidations.incrementAndGet();
+        authorities.invalidate(event.email().toLowerCase());
+    }
+
+    private List<GrantedAuthority> load(String email) {
         Optional<User> opt = userRepository.findByEmail(email);
         User user;
         if (opt.isPresent()) {
@@ -50,8 +119,13 @@ public class JwtUserAuthoritiesConverter implements Converter<Jwt, Collection<Gr
                 user = userRepository.save(user);
                 logger.info("Created new user for email {} with ROLE_USER", email);
             } catch (Exception e) {
-                logger.error("Failed to create user for email {}: {}", email, e.getMessage());
-                return Collections.emptyList();
+                // Another instance may have created it first
+                Optional<User> existing = userRepository.findByEmail(email);
+                if (existing.isEmpty()) {
+                    logger.error("Failed to create user for email {}: {}", email, e.getMessage());
+                    return Collections.emptyList();
+                }
+                user = existing.get();
             }
         }
 
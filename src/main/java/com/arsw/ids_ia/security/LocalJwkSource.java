@@ -0,0 +1,65 @@
+package com.arsw.ids_ia.security;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+
+/**
+ * Signing keys read from a local JWKS document ({@code app.security.jwt.jwks-location}, any Spring
+ * resource location) instead of the issuer's discovery endpoint. Loaded once at startup and re-read
+ * every {@code app.security.jwt.jwks-refresh-interval-ms}; a failed refresh keeps the previous keys.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.jwt.jwks-location")
+public class LocalJwkSource implements JWKSource<SecurityContext> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalJwkSource.class);
+
+    private final Resource location;
+    private volatile JWKSet keys;
+
+    public LocalJwkSource(@Value("${app.security.jwt.jwks-location}") Resource location) throws IOException {
+        this.location = location;
+        this.keys = read();
+        logger.info("Loaded {} signing keys from {}", keys.getKeys().size(), location);
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector selector, SecurityContext context) throws KeySourceException {
+        return selector.select(keys);
+    }
+
+    @Scheduled(initialDelayString = "${app.security.jwt.jwks-refresh-interval-ms:300000}",
+            fixedDelayString = "${app.security.jwt.jwks-refresh-interval-ms:300000}")
+    public void refresh() {
+        try {
+            keys = read();
+        } catch (IOException e) {
+            logger.warn("Failed to refresh signing keys from {}, keeping previous keys: {}", location, e.getMessage());
+        }
+    }
+
+    private JWKSet read() throws IOException {
+        try (InputStream in = location.getInputStream()) {
+            return JWKSet.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (java.text.ParseException e) {
+            throw new IOException("Invalid JWKS document: " + e.getMessage(), e);
+        }
+    }
+}
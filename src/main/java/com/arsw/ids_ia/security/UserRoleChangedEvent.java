@@ -0,0 +1,8 @@
+package com.arsw.ids_ia.security;
+
+/**
+ * Published after a user's role is created or changed so cached authorities for that email
+ * are dropped; {@code email} is matched case-insensitively.
+ */
+public record UserRoleChangedEvent(String email) {
+}
@@ -0,0 +1,133 @@
+package com.arsw.ids_ia.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.arsw.ids_ia.repository.MeetingRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory view of ACTIVE meetings by id and by code. The meeting service updates it after each
+ * create, join, leave and resolve commits; it is rebuilt from the database at startup and
+ * periodically re-synchronised to pick up writes made by other nodes. Lookups that miss are not
+ * authoritative: callers fall back to the database.
+ */
+@Component
+public class ActiveMeetingRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveMeetingRegistry.class);
+    static final String STATUS_ACTIVE = "ACTIVE";
+
+    private final MeetingRepository repository;
+    private final Map<Long, MeetingSnapshot> byId = new ConcurrentHashMap<>();
+    private final Map<String, Long> idByCode = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public ActiveMeetingRegistry(MeetingRepository repository, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.hits = Counter.builder("ids.meetings.registry.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("ids.meetings.registry.lookups").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("ids.meetings.registry.size", byId, Map::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.meetings.registry.resync-interval-ms:60000}",
+            fixedDelayString = "${app.meetings.registry.resync-interval-ms:60000}")
+    public void rebuild() {
+        try {
+            Map<Long, MeetingSnapshot> fresh = new HashMap<>();
+            for (MeetingSnapshot snapshot : repository.findActiveSnapshots()) {
+                fresh.put(snapshot.id(), snapshot);
+            }
+            byId.keySet().retainAll(fresh.keySet());
+            idByCode.values().retainAll(fresh.keySet());
+            fresh.values().forEach(this::store);
+            logger.info("Active meeting registry rebuilt: {} meetings", fresh.size());
+        } catch (Exception e) {
+            logger.error("Failed to rebuild active meeting registry: {}", e.getMessage());
+        }
+    }
+
+    public Optional<MeetingSnapshot> byId(Long id) {
+        return record(id != null ? byId.get(id) : null);
+    }
+
+    public Optional<MeetingSnapshot> byCode(String code) {
+        Long id = code != null ? idByCode.get(code) : null;
+        return record(id != null ? byId.get(id) : null);
+    }
+
+    public Collection<MeetingSnapshot> active() {
+        return List.copyOf(byId.values());
+    }
+
+    /**
+     * Records the meeting once the surrounding transaction commits (immediately when there is none).
+     * Meetings that are no longer ACTIVE are dropped.
+     */
+    public void update(MeetingSnapshot snapshot) {
+        afterCommit(() -> {
+            if (STATUS_ACTIVE.equals(snapshot.status())) {
+                store(snapshot);
+            } else {
+                remove(snapshot.id());
+            }
+        });
+    }
+
+    private void store(MeetingSnapshot snapshot) {
+        MeetingSnapshot previous = byId.put(snapshot.id(), snapshot);
+        if (previous != null && previous.code() != null && !previous.code().equals(snapshot.code())) {
+            idByCode.remove(previous.code(), previous.id());
+        }
+        if (snapshot.code() != null) {
+            idByCode.put(snapshot.code(), snapshot.id());
+        }
+    }
+
+    private void remove(Long id) {
+        MeetingSnapshot previous = byId.remove(id);
+        if (previous != null && previous.code() != null) {
+            idByCode.remove(previous.code(), id);
+        }
+    }
+
+    private Optional<MeetingSnapshot> record(MeetingSnapshot snapshot) {
+        (snapshot != null ? hits : misses).increment();
+        return Optional.ofNullable(snapshot);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.arsw.ids_ia.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.arsw.ids_ia.model.Alert;
+
+/**
+ * Keyset position in the alert feed, ordered by (timestamp DESC, id DESC).
+ * Encoded as an opaque URL-safe token so clients only pass it back.
+ */
+public record AlertCursor(Instant timestamp, Long id) {
+
+    public AlertCursor {
+        if (timestamp == null || id == null) {
+            throw new IllegalArgumentException("Cursor needs a timestamp and an id");
+        }
+    }
+
+    public static AlertCursor after(Alert alert) {
+        return new AlertCursor(alert.getTimestamp(), alert.getId());
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AlertCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new AlertCursor(Instant.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.arsw.ids_ia.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.arsw.ids_ia.model.Alert;
+import com.arsw.ids_ia.utils.cache.BoundedTtlCache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Recently stored alerts keyed by their duplicate identity (packetId + incidentId + severity).
+ * Checked before touching the database so replayed detector traffic is answered from memory;
+ * a miss only means "not seen lately", the unique constraint on alerts remains the source of truth.
+ * Hit/miss counters are published as ids.alerts.dedup.lookups{result=hit|miss}.
+ */
+@Component
+public class AlertDedupIndex {
+
+    private final BoundedTtlCache<Key, Alert> recent;
+
+    public AlertDedupIndex(@Value("${app.alerts.dedup.max-entries:100000}") int maxEntries,
+            @Value("${app.alerts.dedup.window:10m}") Duration window,
+            MeterRegistry meterRegistry) {
+        this.recent = new BoundedTtlCache<>(maxEntries, window);
+
+        FunctionCounter.builder("ids.alerts.dedup.lookups", recent, BoundedTtlCache::hitCount)
+                .tag("result", "hit")
+                .description("Duplicate checks answered by the in-memory index")
+                .register(meterRegistry);
+        FunctionCounter.builder("ids.alerts.dedup.lookups", recent, BoundedTtlCache::missCount)
+                .tag("result", "miss")
+                .description("Duplicate checks that fell through to the database")
+                .register(meterRegistry);
+        FunctionCounter.builder("ids.alerts.dedup.evictions", recent, BoundedTtlCache::evictionCount)
+                .register(meterRegistry);
+        Gauge.builder("ids.alerts.dedup.size", recent, BoundedTtlCache::size)
+                .register(meterRegistry);
+        Gauge.builder("ids.alerts.dedup.hit.ratio", this, AlertDedupIndex::hitRatio)
+                .register(meterRegistry);
+    }
+
+    public Alert find(Key key) {
+        return recent.get(key);
+    }
+
+    public void record(Key key, Alert alert) {
+        recent.put(key, alert);
+    }
+
+    public void forget(Key key) {
+        recent.invalidate(key);
+    }
+
+    public double hitRatio() {
+        long hits = recent.hitCount();
+        long total = hits + recent.missCount();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * Identity used for duplicate detection. Alerts missing any component never match, mirroring
+     * SQL equality semantics and the unique constraint (NULLs are never equal).
+     */
+    public record Key(String packetId, String incidentId, String severity) {
+        public static Key of(Alert alert) {
+            if (alert.getPacketId() == null || alert.getIncidentId() == null || alert.getSeverity() == null) {
+                return null;
+            }
+            return new Key(alert.getPacketId(), alert.getIncidentId(), alert.getSeverity());
+        }
+    }
+}
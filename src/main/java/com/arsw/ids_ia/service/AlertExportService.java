@@ -0,0 +1,144 @@
+package com.arsw.ids_ia.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.arsw.ids_ia.model.Alert;
+import com.arsw.ids_ia.repository.AlertRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Writes the full alert history to an output stream row by row. Rows come from a server-side
+ * cursor and are detached once written, so heap use does not depend on the number of alerts.
+ */
+@Service
+public class AlertExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertExportService.class);
+    private static final String CSV_HEADER = "id,packetId,incidentId,severity,score,modelVersion,timestamp,warRoomId";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private final AlertRepository repository;
+    private final EntityManager entityManager;
+    private final ObjectMapper mapper;
+
+    public AlertExportService(AlertRepository repository, EntityManager entityManager, ObjectMapper mapper) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.mapper = mapper;
+    }
+
+    @Transactional(readOnly = true)
+    public long export(Format format, OutputStream out) throws IOException {
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try (Stream<Alert> alerts = repository.streamAllByOrderByTimestampAscIdAsc()) {
+            if (format == Format.NDJSON) {
+                rows = writeNdjson(alerts, writer);
+            } else {
+                rows = writeCsv(alerts, writer);
+            }
+        }
+        writer.flush();
+        logger.info("Exported {} alerts as {}", rows, format);
+        return rows;
+    }
+
+    private long writeNdjson(Stream<Alert> alerts, Writer writer) throws IOException {
+        long rows = 0;
+        try (SequenceWriter sequence = mapper.writerFor(Alert.class)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(writer)) {
+            for (Alert alert : (Iterable<Alert>) alerts::iterator) {
+                sequence.write(alert);
+                entityManager.detach(alert);
+                rows++;
+            }
+        }
+        if (rows > 0) {
+            writer.write('\n');
+        }
+        return rows;
+    }
+
+    private long writeCsv(Stream<Alert> alerts, Writer writer) throws IOException {
+        long rows = 0;
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        for (Alert alert : (Iterable<Alert>) alerts::iterator) {
+            writer.write(String.valueOf(alert.getId()));
+            writer.write(',');
+            writer.write(csv(alert.getPacketId()));
+            writer.write(',');
+            writer.write(csv(alert.getIncidentId()));
+            writer.write(',');
+            writer.write(csv(alert.getSeverity()));
+            writer.write(',');
+            writer.write(alert.getScore() != null ? alert.getScore().toString() : "");
+            writer.write(',');
+            writer.write(csv(alert.getModelVersion()));
+            writer.write(',');
+            writer.write(alert.getTimestamp() != null ? alert.getTimestamp().toString() : "");
+            writer.write(',');
+            writer.write(alert.getWarRoomId() != null ? alert.getWarRoomId().toString() : "");
+            writer.write('\n');
+            entityManager.detach(alert);
+            rows++;
+        }
+        return rows;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
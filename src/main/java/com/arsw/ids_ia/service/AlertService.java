@@ -2,33 +2,55 @@ package com.arsw.ids_ia.service;
 
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.arsw.ids_ia.dto.response.AlertPageResponse;
+import com.arsw.ids_ia.dto.response.AlertWarRoomView;
 import com.arsw.ids_ia.model.Alert;
 import com.arsw.ids_ia.repository.AlertRepository;
-import com.arsw.ids_ia.ws.TrafficSocketHandler;
+import com.arsw.ids_ia.ws.AlertBroadcastCoalescer;
+import com.arsw.ids_ia.ws.event.AlertPayload;
 
 @Service
 public class AlertService {
 
     private static final Logger logger = LoggerFactory.getLogger(AlertService.class);
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
 
     private final AlertRepository repository;
-    private final TrafficSocketHandler socketHandler;
+    private final AlertBroadcastCoalescer broadcaster;
+    private final AlertDedupIndex dedupIndex;
+    private final AlertSeverityCounters severityCounters;
+    private final int maxBatchSize;
 
     @Autowired
-    public AlertService(AlertRepository repository, @Autowired(required = false) TrafficSocketHandler socketHandler) {
+    public AlertService(AlertRepository repository, @Autowired(required = false) AlertBroadcastCoalescer broadcaster,
+            AlertDedupIndex dedupIndex, AlertSeverityCounters severityCounters,
+            @Value("${app.alerts.batch.max-size:5000}") int maxBatchSize) {
         this.repository = repository;
-        this.socketHandler = socketHandler;
+        this.broadcaster = broadcaster;
+        this.dedupIndex = dedupIndex;
+        this.severityCounters = severityCounters;
+        this.maxBatchSize = maxBatchSize;
     }
 
     public Alert create(Alert alert) {
@@ -37,40 +59,220 @@ public class AlertService {
         }
         
         // Check for duplicates: same packetId + incidentId + severity
-        Optional<Alert> existing = repository.findDuplicate(alert.getPacketId(), alert.getIncidentId(), alert.getSeverity());
-        if (existing.isPresent()) {
-            logger.warn("Duplicate alert detected - using existing alert" ); // NOSONAR
-            return existing.get();
+        AlertDedupIndex.Key key = AlertDedupIndex.Key.of(alert);
+        Alert saved;
+        if (key == null) {
+            // incomplete identity can never collide, plain insert
+            saved = repository.save(alert);
+        } else {
+            Alert cached = dedupIndex.find(key);
+            if (cached != null) {
+                logger.warn("Duplicate alert detected - using existing alert" ); // NOSONAR
+                return cached;
+            }
+            // Single round trip: the unique constraint decides, concurrent inserts of the same alert cannot both win
+            Optional<Long> id = repository.insertIfAbsent(alert.getPacketId(), alert.getIncidentId(), alert.getSeverity(),
+                    alert.getScore(), alert.getModelVersion(), alert.getTimestamp(), alert.getWarRoomId());
+            if (id.isEmpty()) {
+                Optional<Alert> existing = repository.findDuplicate(alert.getPacketId(), alert.getIncidentId(), alert.getSeverity());
+                if (existing.isPresent()) {
+                    logger.warn("Duplicate alert detected - using existing alert" ); // NOSONAR
+                    afterCommit(() -> dedupIndex.record(key, existing.get()));
+                    return existing.get();
+                }
+                // the conflicting row was deleted in between; store this one normally
+                saved = repository.save(alert);
+            } else {
+                alert.setId(id.get());
+                saved = alert;
+            }
         }
-        
-        Alert saved = repository.save(alert);
         logger.info("Alert created id={} packetId={} incidentId={} severity={}", saved.getId(), saved.getPacketId(), saved.getIncidentId(), saved.getSeverity());
-        // Broadcast to connected websocket clients
-        if (socketHandler != null) {
+        // In-memory state and websocket clients only learn about the alert once it is committed
+        Alert stored = saved;
+        afterCommit(() -> {
+            if (key != null) {
+                dedupIndex.record(key, stored);
+            }
+            severityCounters.increment(stored.getSeverity());
+            // Broadcast to connected websocket clients
+            if (broadcaster != null) {
+                try {
+                    // Dentro de este bloque broadcaster != null, por lo que la rama '== null' es inalcanzable (Sonar S2583)
+                    broadcaster.submit(AlertPayload.from(stored));
+                } catch (Exception ex) {
+                    logger.warn("Failed to broadcast alert via websocket: {}", ex.getMessage());
+                    // best-effort - don't break persistence on WS errors
+                }
+            }
+        });
+        return saved;
+    }
+
+    /**
+     * Persists a burst of alerts in a single transaction. Duplicates (same packetId + incidentId + severity),
+     * both inside the batch and against stored alerts, are resolved with the dedup index and at most one lookup query; the remaining
+     * alerts are written with one insert-if-absent statement and announced with a single "alerts.batch" event after commit.
+     * Alerts that a concurrent writer stored first are answered with that writer's row instead of failing the batch.
+     *
+     * @return one alert per input element, in input order (the stored alert when it was a duplicate)
+     */
+    @Transactional
+    public List<Alert> createBatch(List<Alert> alerts) {
+        if (alerts == null || alerts.isEmpty()) {
+            return List.of();
+        }
+        if (alerts.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Alert batch exceeds the maximum size of " + maxBatchSize);
+        }
+
+        Instant now = Instant.now();
+        Map<AlertDedupIndex.Key, Alert> known = new HashMap<>();
+        Set<String> packetIds = new HashSet<>();
+        for (Alert alert : alerts) {
+            if (alert.getTimestamp() == null) {
+                alert.setTimestamp(now);
+            }
+            AlertDedupIndex.Key key = AlertDedupIndex.Key.of(alert);
+            if (key == null || known.containsKey(key)) {
+                continue;
+            }
+            Alert cached = dedupIndex.find(key);
+            if (cached != null) {
+                known.put(key, cached);
+            } else {
+                packetIds.add(alert.getPacketId());
+            }
+        }
+
+        // Only keys the index has not seen lately need the database lookup
+        if (!packetIds.isEmpty()) {
+            for (Alert stored : repository.findByPacketIdIn(packetIds)) {
+                AlertDedupIndex.Key key = AlertDedupIndex.Key.of(stored);
+                if (key != null) {
+                    known.putIfAbsent(key, stored);
+                }
+            }
+        }
+
+        // New alerts are returned as-is once the insert assigns their ids
+        List<Alert> result = new ArrayList<>(alerts.size());
+        List<Alert> toInsert = new ArrayList<>();
+        for (Alert alert : alerts) {
+            AlertDedupIndex.Key key = AlertDedupIndex.Key.of(alert);
+            Alert match = key != null ? known.get(key) : null;
+            if (match != null) {
+                result.add(match);
+                continue;
+            }
+            toInsert.add(alert);
+            result.add(alert);
+            if (key != null) {
+                known.put(key, alert);
+            }
+        }
+
+        List<Alert> saved = insertAbsent(toInsert, result);
+        logger.info("Alert batch stored: received={} inserted={} duplicates={}", alerts.size(), saved.size(), alerts.size() - saved.size());
+
+        // The index, the counters and the dashboards only hear about the batch once it is committed;
+        // a rolled-back batch leaves no trace and is recorded when its retry succeeds
+        if (!saved.isEmpty()) {
+            afterCommit(() -> recordStored(saved));
+        }
+
+        return result;
+    }
+
+    /**
+     * Inserts the alerts, letting the unique constraint decide against concurrent writers. Alerts that lost are
+     * replaced in {@code result} by the stored row that won.
+     *
+     * @return the alerts actually inserted, in input order
+     */
+    private List<Alert> insertAbsent(List<Alert> toInsert, List<Alert> result) {
+        Map<AlertDedupIndex.Key, Alert> pending = new HashMap<>();
+        List<Alert> plain = new ArrayList<>();
+        for (Alert alert : toInsert) {
+            AlertDedupIndex.Key key = AlertDedupIndex.Key.of(alert);
+            if (key == null) {
+                // incomplete identity can never collide, plain insert
+                plain.add(alert);
+            } else {
+                pending.put(key, alert);
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            List<Alert> keyed = new ArrayList<>(pending.values());
+            List<AlertRepository.InsertedAlert> inserted = repository.insertAllIfAbsent(
+                    keyed.stream().map(Alert::getPacketId).toArray(String[]::new),
+                    keyed.stream().map(Alert::getIncidentId).toArray(String[]::new),
+                    keyed.stream().map(Alert::getSeverity).toArray(String[]::new),
+                    keyed.stream().map(Alert::getScore).toArray(Double[]::new),
+                    keyed.stream().map(Alert::getModelVersion).toArray(String[]::new),
+                    keyed.stream().map(Alert::getTimestamp).toArray(Instant[]::new),
+                    keyed.stream().map(Alert::getWarRoomId).toArray(Long[]::new));
+            for (AlertRepository.InsertedAlert row : inserted) {
+                pending.remove(new AlertDedupIndex.Key(row.getPacketId(), row.getIncidentId(), row.getSeverity()))
+                        .setId(row.getId());
+            }
+        }
+
+        // What is left lost to a concurrent writer: re-read just those keys and answer with the stored rows
+        Map<Alert, Alert> winners = new IdentityHashMap<>();
+        if (!pending.isEmpty()) {
+            logger.warn("Alert batch raced with another writer on {} alerts - using existing alerts", pending.size()); // NOSONAR
+            Set<String> packetIds = new HashSet<>();
+            pending.keySet().forEach(key -> packetIds.add(key.packetId()));
+            for (Alert stored : repository.findByPacketIdIn(packetIds)) {
+                Alert loser = pending.remove(AlertDedupIndex.Key.of(stored));
+                if (loser != null) {
+                    winners.put(loser, stored);
+                }
+            }
+            // the conflicting rows were deleted in between; store these normally
+            plain.addAll(pending.values());
+            result.replaceAll(alert -> winners.getOrDefault(alert, alert));
+        }
+
+        if (!plain.isEmpty()) {
+            repository.saveAll(plain);
+        }
+        return winners.isEmpty() ? toInsert : toInsert.stream().filter(alert -> !winners.containsKey(alert)).toList();
+    }
+
+    private void recordStored(List<Alert> saved) {
+        for (Alert alert : saved) {
+            AlertDedupIndex.Key key = AlertDedupIndex.Key.of(alert);
+            if (key != null) {
+                dedupIndex.record(key, alert);
+            }
+            severityCounters.increment(alert.getSeverity());
+        }
+        if (broadcaster != null) {
             try {
-                Map<String, Object> alertMap = new HashMap<>();
-                alertMap.put("id", saved.getId());
-                alertMap.put("packetId", saved.getPacketId());
-                alertMap.put("incidentId", saved.getIncidentId());
-                alertMap.put("severity", saved.getSeverity());
-                alertMap.put("score", saved.getScore());
-                alertMap.put("modelVersion", saved.getModelVersion());
-                // include snake_case variant used by some frontend code
-                alertMap.put("model_version", saved.getModelVersion());
-                alertMap.put("timestamp", saved.getTimestamp());
-
-                Map<String, Object> outer = new HashMap<>();
-                outer.put("type", "alert");
-                outer.put("alert", alertMap);
-                // Dentro de este bloque socketHandler != null, por lo que la rama '== null' es inalcanzable (Sonar S2583)
-                logger.info("Broadcasting alert to websocket sessions: {} sessions present", "(unknown)");
-                socketHandler.broadcastObject(outer);
+                broadcaster.submitAll(saved.stream().map(AlertPayload::from).toList());
             } catch (Exception ex) {
-                logger.warn("Failed to broadcast alert via websocket: {}", ex.getMessage());
-                // best-effort - don't break persistence on WS errors
+                logger.warn("Failed to broadcast alert batch via websocket: {}", ex.getMessage());
             }
         }
-        return saved;
+    }
+
+    /**
+     * Runs the action once the surrounding transaction commits, or right away when there is none.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 
     public Optional<Alert> getById(Long id) {
@@ -86,17 +288,68 @@ public class AlertService {
         return repository.findActiveAlertsOrderByTimestampDesc(PageRequest.of(0, limit));
     }
 
+    /**
+     * Most recent active alerts with their war-room details, fetched in a single query.
+     */
+    public List<AlertWarRoomView> recentWithWarRoom(int limit) {
+        int size = Math.min(limit <= 0 ? DEFAULT_PAGE_SIZE : limit, MAX_PAGE_SIZE);
+        return repository.findActiveWithWarRoom(Limit.of(size));
+    }
+
+    /**
+     * Keyset page of active alerts, newest first. Deep pages cost the same as the first one.
+     */
+    public AlertPageResponse page(String cursor, int limit) {
+        int size = Math.min(limit <= 0 ? DEFAULT_PAGE_SIZE : limit, MAX_PAGE_SIZE);
+        // one extra row tells whether another page exists
+        Limit fetch = Limit.of(size + 1);
+        List<Alert> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = repository.findActivePage(fetch);
+        } else {
+            AlertCursor position = AlertCursor.decode(cursor);
+            rows = repository.findActivePageAfter(position.timestamp(), position.id(), fetch);
+        }
+
+        if (rows.size() <= size) {
+            return new AlertPageResponse(rows, null);
+        }
+        List<Alert> items = rows.subList(0, size);
+        return new AlertPageResponse(items, AlertCursor.after(items.get(size - 1)).encode());
+    }
+
     public List<Alert> today() {
-        Instant startOfDay = Instant.now().atZone(ZoneId.systemDefault()).toLocalDate()
+        return repository.findByTimestampAfterOrderByTimestampDesc(startOfToday());
+    }
+
+    /**
+     * Today's alerts counted per lower-cased severity, aggregated in the database over the
+     * index range for the current day rather than over loaded rows.
+     */
+    public Map<String, Long> todayCountBySeverity() {
+        return AlertSeverityCounters.toMap(repository.countSinceGroupBySeverity(startOfToday()));
+    }
+
+    private static Instant startOfToday() {
+        return Instant.now().atZone(ZoneId.systemDefault()).toLocalDate()
                 .atStartOfDay(ZoneId.systemDefault()).toInstant();
-        List<Alert> allAlerts = repository.findAllByOrderByTimestampDesc(PageRequest.of(0, Integer.MAX_VALUE));
-        return allAlerts.stream()
-                .filter(alert -> alert.getTimestamp() != null && alert.getTimestamp().isAfter(startOfDay))
-                .toList();
     }
 
     public void delete(Long id) {
+        Optional<Alert> alert = repository.findById(id);
+        if (alert.isEmpty()) {
+            return;
+        }
+        boolean active = repository.isActive(id).orElse(false);
         repository.deleteById(id);
+
+        AlertDedupIndex.Key key = AlertDedupIndex.Key.of(alert.get());
+        if (key != null) {
+            dedupIndex.forget(key);
+        }
+        if (active) {
+            severityCounters.decrement(alert.get().getSeverity());
+        }
     }
 
     public long count() {
@@ -0,0 +1,102 @@
+package com.arsw.ids_ia.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.arsw.ids_ia.repository.AlertRepository;
+
+/**
+ * Live count of active alerts (not linked to an ENDED war room) per severity, so
+ * /api/alerts/count/by-severity never has to load alerts. Updated by the alert and meeting services
+ * on create, delete, link and resolve; rebuilt from the database at startup and periodically
+ * re-synchronised to absorb drift (writes from other nodes, races with the rebuild itself).
+ */
+@Component
+public class AlertSeverityCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertSeverityCounters.class);
+
+    private final AlertRepository repository;
+    private final Map<String, AtomicLong> bySeverity = new ConcurrentHashMap<>();
+    private final AtomicLong total = new AtomicLong();
+
+    public AlertSeverityCounters(AlertRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.alerts.counters.resync-interval-ms:300000}",
+            fixedDelayString = "${app.alerts.counters.resync-interval-ms:300000}")
+    public void rebuild() {
+        try {
+            Map<String, Long> counts = toMap(repository.countActiveBySeverity());
+            long newTotal = counts.values().stream().mapToLong(Long::longValue).sum();
+            bySeverity.keySet().retainAll(counts.keySet());
+            counts.forEach((severity, count) -> counter(severity).set(count));
+            total.set(newTotal);
+            logger.info("Alert severity counters rebuilt: total={} {}", newTotal, counts);
+        } catch (Exception e) {
+            logger.error("Failed to rebuild alert severity counters: {}", e.getMessage());
+        }
+    }
+
+    public void increment(String severity) {
+        counter(normalize(severity)).incrementAndGet();
+        total.incrementAndGet();
+    }
+
+    public void decrement(String severity) {
+        counter(normalize(severity)).decrementAndGet();
+        total.decrementAndGet();
+    }
+
+    /** Applies per-severity deltas as returned by the grouped count queries of {@link AlertRepository}. */
+    public void add(List<Object[]> groupedCounts, int sign) {
+        toMap(groupedCounts).forEach((severity, count) -> {
+            counter(severity).addAndGet(sign * count);
+            total.addAndGet(sign * count);
+        });
+    }
+
+    public long total() {
+        return total.get();
+    }
+
+    public long count(String severity) {
+        AtomicLong counter = bySeverity.get(normalize(severity));
+        return counter != null ? counter.get() : 0L;
+    }
+
+    private AtomicLong counter(String severity) {
+        return bySeverity.computeIfAbsent(severity, s -> new AtomicLong());
+    }
+
+    /** Turns (lower-cased severity, count) rows from the grouped count queries into a map. */
+    static Map<String, Long> toMap(List<Object[]> rows) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.merge(normalize((String) row[0]), ((Number) row[1]).longValue(), Long::sum);
+        }
+        return counts;
+    }
+
+    private static String normalize(String severity) {
+        // grouped queries already lower-case; alerts without severity still count towards the total
+        return severity != null ? severity.toLowerCase(Locale.ROOT) : "";
+    }
+}
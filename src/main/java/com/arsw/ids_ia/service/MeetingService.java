@@ -10,7 +10,8 @@ public interface MeetingService {
     Meeting leaveMeeting(Long meetingId, String participantEmail);
     Meeting getMeetingById(Long meetingId);
     Meeting getMeetingByCode(String code);
+    MeetingSnapshot getMeetingSnapshot(Long meetingId);
     Meeting markIncidentAsResolved(Long meetingId, String adminEmail);
     long getCurrentMeetingDurationSeconds(Meeting meeting);
-    void broadcastDurationUpdate(Long meetingId);
+    int broadcastActiveDurations();
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.arsw.ids_ia.service;
+
+import java.time.LocalDateTime;
+
+import com.arsw.ids_ia.model.Meeting;
+
+/**
+ * Immutable summary of a meeting for read paths that do not need its participants or creator.
+ */
+public record MeetingSnapshot(
+    Long id,
+    String code,
+    String title,
+    String status,
+    LocalDateTime startTime,
+    Long durationSeconds,
+    int participantCount
+) {
+    public static MeetingSnapshot from(Meeting meeting) {
+        Integer count = meeting.getCurrentParticipantCount();
+        return new MeetingSnapshot(meeting.getId(), meeting.getCode(), meeting.getTitle(), meeting.getStatus(),
+                meeting.getStartTime(), meeting.getDurationSeconds(), count != null ? count : 0);
+    }
+}
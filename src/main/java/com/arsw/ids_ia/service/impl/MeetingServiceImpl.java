@@ -2,15 +2,17 @@ package com.arsw.ids_ia.service.impl;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.arsw.ids_ia.dto.request.CreateMeetingRequest;
 import com.arsw.ids_ia.dto.request.JoinMeetingRequest;
@@ -20,9 +22,17 @@ import com.arsw.ids_ia.model.User;
 import com.arsw.ids_ia.repository.AlertRepository;
 import com.arsw.ids_ia.repository.MeetingRepository;
 import com.arsw.ids_ia.repository.UserRepository;
+import com.arsw.ids_ia.service.ActiveMeetingRegistry;
+import com.arsw.ids_ia.service.AlertSeverityCounters;
 import com.arsw.ids_ia.service.MeetingService;
+import com.arsw.ids_ia.service.MeetingSnapshot;
 import com.arsw.ids_ia.utils.enums.Role;
 import com.arsw.ids_ia.ws.TrafficSocketHandler;
+import com.arsw.ids_ia.ws.event.WarRoomCreatedEvent;
+import com.arsw.ids_ia.ws.event.WarRoomDurationBatchEvent;
+import com.arsw.ids_ia.ws.event.WarRoomParticipantsEvent;
+import com.arsw.ids_ia.ws.event.WarRoomPayload;
+import com.arsw.ids_ia.ws.event.WarRoomResolvedEvent;
 
 import lombok.RequiredArgsConstructor;
 
@@ -32,15 +42,14 @@ public class MeetingServiceImpl implements MeetingService {
 
     private static final Logger logger = LoggerFactory.getLogger(MeetingServiceImpl.class);
     private static final String STATUS_ACTIVE = "ACTIVE";
-    private static final String KEY_CURRENT_PARTICIPANT_COUNT = "currentParticipantCount";
-    private static final String KEY_DURATION_SECONDS = "durationSeconds";
     private static final String MSG_MEETING_NOT_FOUND = "Meeting not found";
-    private static final String KEY_WAR_ROOM_ID = "warRoomId";
     
     private final MeetingRepository meetingRepository;
     private final UserRepository userRepository;
     private final AlertRepository alertRepository;
     private final TrafficSocketHandler socketHandler;
+    private final AlertSeverityCounters severityCounters;
+    private final ActiveMeetingRegistry activeMeetings;
 
     @Override
     @Transactional
@@ -63,7 +72,7 @@ public class MeetingServiceImpl implements MeetingService {
                 .creator(creator)
                 .participants(new HashSet<>())
                 .status(STATUS_ACTIVE)
-                .currentParticipantCount(0)
+                .currentParticipantCount(1) // el creador es el primer participante
                 .build();
 
         try {
@@ -72,7 +81,6 @@ public class MeetingServiceImpl implements MeetingService {
             
             // Add creator as first participant
             savedMeeting.getParticipants().add(creator);
-            savedMeeting.setCurrentParticipantCount(1);
             
             // Final save with all data
             savedMeeting = meetingRepository.saveAndFlush(savedMeeting);
@@ -81,12 +89,13 @@ public class MeetingServiceImpl implements MeetingService {
                 savedMeeting.getId(), savedMeeting.getCode());
             
             // Update alerts if incidentId is provided
+            int linkedAlerts = 0;
             if (request.getIncidentId() != null && !request.getIncidentId().isEmpty()) {
-                updateAlertsForMeeting(request.getIncidentId(), savedMeeting.getId());
+                linkedAlerts = updateAlertsForMeeting(request.getIncidentId(), savedMeeting.getId());
             }
             
             // Broadcast creation event
-            broadcastMeetingCreated(savedMeeting, request.getIncidentId());
+            broadcastMeetingCreated(savedMeeting, request.getIncidentId(), linkedAlerts);
             
             return savedMeeting;
             
@@ -103,17 +112,17 @@ public class MeetingServiceImpl implements MeetingService {
                     meeting.setCode(generateUniqueCode());
                     Meeting retryMeeting = meetingRepository.save(meeting);
                     retryMeeting.getParticipants().add(creator);
-                    retryMeeting.setCurrentParticipantCount(1);
                     retryMeeting = meetingRepository.saveAndFlush(retryMeeting);
                     
                     logger.info("Meeting created on retry with ID: {}, Code: {}", 
                         retryMeeting.getId(), retryMeeting.getCode());
                     
+                    int linkedAlerts = 0;
                     if (request.getIncidentId() != null && !request.getIncidentId().isEmpty()) {
-                        updateAlertsForMeeting(request.getIncidentId(), retryMeeting.getId());
+                        linkedAlerts = updateAlertsForMeeting(request.getIncidentId(), retryMeeting.getId());
                     }
                     
-                    broadcastMeetingCreated(retryMeeting, request.getIncidentId());
+                    broadcastMeetingCreated(retryMeeting, request.getIncidentId(), linkedAlerts);
                     return retryMeeting;
                     
                 } catch (Exception retryEx) {
@@ -126,121 +135,72 @@ public class MeetingServiceImpl implements MeetingService {
         }
     }
 
-    private void updateAlertsForMeeting(String incidentId, Long meetingId) {
+    private int updateAlertsForMeeting(String incidentId, Long meetingId) {
         try {
-            var alerts = alertRepository.findByIncidentId(incidentId);
-            for (var alert : alerts) {
-                alert.setWarRoomId(meetingId);
-                alertRepository.save(alert);
-            }
+            // Alerts still linked to an ENDED war room become active again once relinked
+            var reactivated = alertRepository.countResolvedByIncidentIdGroupBySeverity(incidentId);
+            // Un solo UPDATE por incidente en lugar de cargar y guardar cada alerta
+            int linked = alertRepository.linkIncidentToWarRoom(incidentId, meetingId);
+            afterCommit(() -> severityCounters.add(reactivated, 1));
             logger.info("Updated {} alerts for incident {} with meeting ID {}", 
-                alerts.size(), incidentId, meetingId);
+                linked, incidentId, meetingId);
+            return linked;
         } catch (Exception e) {
             logger.warn("Failed to update alerts for incident {}: {}", incidentId, e.getMessage());
+            return 0;
         }
     }
 
-    private void broadcastMeetingCreated(Meeting meeting, String incidentId) {
+    private void broadcastMeetingCreated(Meeting meeting, String incidentId, int linkedAlerts) {
+        activeMeetings.update(MeetingSnapshot.from(meeting));
         try {
-            Map<String, Object> event = new HashMap<>();
-            event.put("type", "warroom.created");
-            event.put("incidentId", incidentId);
-            
-            Map<String, Object> warRoomData = new HashMap<>();
-            warRoomData.put("id", meeting.getId());
-            warRoomData.put("code", meeting.getCode());
-            warRoomData.put("title", meeting.getTitle());
-            warRoomData.put("startTime", meeting.getStartTime() != null ? meeting.getStartTime().atZone(ZoneOffset.UTC).toInstant().toString() : null);
-            warRoomData.put(KEY_CURRENT_PARTICIPANT_COUNT, meeting.getCurrentParticipantCount());
-            warRoomData.put("status", meeting.getStatus());
-            warRoomData.put(KEY_DURATION_SECONDS, meeting.getDurationSeconds());
-            
-            event.put("warRoom", warRoomData);
-            
-            socketHandler.broadcastObject(event);
+            WarRoomPayload warRoom = new WarRoomPayload(
+                    meeting.getId(),
+                    meeting.getCode(),
+                    meeting.getTitle(),
+                    meeting.getStartTime() != null ? meeting.getStartTime().atZone(ZoneOffset.UTC).toInstant().toString() : null,
+                    meeting.getCurrentParticipantCount(),
+                    meeting.getStatus(),
+                    meeting.getDurationSeconds());
+
+            socketHandler.broadcastEvent(new WarRoomCreatedEvent(incidentId, linkedAlerts, warRoom));
             logger.info("Broadcasted meeting created event for meeting ID: {}", meeting.getId());
         } catch (Exception e) {
             logger.warn("Failed to broadcast meeting created event: {}", e.getMessage());
         }
     }
 
+    /**
+     * Une al usuario con un INSERT idempotente sobre meeting_participants: no carga la lista de
+     * participantes ni depende de excepciones de clave duplicada para detectar carreras. El código se
+     * resuelve desde el registro en memoria; la reunión se carga una vez al final porque la respuesta
+     * incluye creador y participantes
+     */
     @Override
-    @Transactional // Unifica la transacción aquí (Sonar S2229)
+    @Transactional
     public Meeting joinMeeting(JoinMeetingRequest request, String participantEmail) {
-        User participant = userRepository.findByEmail(participantEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Meeting meeting = meetingRepository.findByCode(request.getCode())
+        Long meetingId = activeMeetings.byCode(request.getCode())
+                .map(MeetingSnapshot::id)
+                .or(() -> meetingRepository.findIdByCode(request.getCode()))
                 .orElseThrow(() -> new RuntimeException(MSG_MEETING_NOT_FOUND));
 
-        // Check if user is already in the meeting using database query
-        boolean alreadyJoined = meetingRepository.isUserParticipant(meeting.getId(), participant.getId());
-        
-        if (alreadyJoined) {
-            // Refresh meeting from DB to get accurate participant count
-            meeting = meetingRepository.findById(meeting.getId()).get();
-            // Still broadcast the event to notify frontend of the user's presence
-            broadcastJoinEvent(meeting, participantEmail);
-            return meeting;
+        if (meetingRepository.addParticipant(meetingId, participantEmail) == 1) {
+            meetingRepository.adjustParticipantCount(meetingId, 1);
+        } else if (!userRepository.existsByEmail(participantEmail)) {
+            throw new RuntimeException("User not found");
         }
+        // Already a participant otherwise; still broadcast so the frontend sees the user's presence
 
-        // Try to add participant in separate transaction to avoid rollback issues
-        return attemptJoinMeeting(meeting, participant, participantEmail);
-    }
-
-    // Sin @Transactional para evitar self-invocation incompatible (Sonar S2229)
-    public Meeting attemptJoinMeeting(Meeting meeting, User participant, String participantEmail) {
-        try {
-            // Double-check if user is already in meeting before adding
-            if (meeting.getParticipants().stream().anyMatch(p -> p.getEmail().equals(participantEmail))) {
-                broadcastJoinEvent(meeting, participantEmail);
-                return meeting;
-            }
-            
-            meeting.getParticipants().add(participant);
-            meeting = meetingRepository.saveAndFlush(meeting);
-            
-            // Broadcast warroom.participants event via WebSocket
-            broadcastJoinEvent(meeting, participantEmail);
-            
-            return meeting;
-            
-        } catch (Exception e) {
-            // Handle race condition where user was added between check and save
-            if (e.getMessage() != null && 
-                (e.getMessage().contains("meeting_participants_pkey") || 
-                 e.getMessage().contains("duplicate key value violates unique constraint"))) {
-                logger.warn("Race condition detected when adding participant {} to meeting {}: {}", 
-                    participantEmail, meeting.getId(), e.getMessage());
-                // Handle in separate transaction to avoid rollback issues
-                return handleRaceCondition(meeting.getId(), participantEmail);
-            } else {
-                logger.error("Unexpected error joining meeting: {}", e.getMessage(), e);
-                throw new RuntimeException("Error joining meeting: " + e.getMessage());
-            }
-        }
-    }
-
-    // Sin @Transactional para evitar self-invocation incompatible (Sonar S2229); operación sólo lectura
-    public Meeting handleRaceCondition(Long meetingId, String participantEmail) {
-        // Reload meeting and broadcast event in separate read-only transaction
         Meeting meeting = meetingRepository.findById(meetingId)
-                .orElseThrow(() -> new RuntimeException(MSG_MEETING_NOT_FOUND + " after race condition"));
-        
-        logger.info("User {} already in meeting {}, broadcasting join event", participantEmail, meetingId);
+                .orElseThrow(() -> new RuntimeException(MSG_MEETING_NOT_FOUND));
         broadcastJoinEvent(meeting, participantEmail);
         return meeting;
     }
-    
+
     private void broadcastJoinEvent(Meeting meeting, String participantEmail) {
-        Map<String, Object> event = new HashMap<>();
-        event.put("type", "warroom.participants");
-        event.put(KEY_WAR_ROOM_ID, meeting.getId());
-        event.put(KEY_CURRENT_PARTICIPANT_COUNT, meeting.getCurrentParticipantCount());
-        event.put("action", "joined");
-        event.put("userEmail", participantEmail);
-        
-        socketHandler.broadcastObject(event);
+        activeMeetings.update(MeetingSnapshot.from(meeting));
+        socketHandler.broadcastEvent(new WarRoomParticipantsEvent(
+                meeting.getId(), meeting.getCurrentParticipantCount(), WarRoomParticipantsEvent.JOINED, participantEmail));
     }
     
     @Override
@@ -249,26 +209,19 @@ public class MeetingServiceImpl implements MeetingService {
         Meeting meeting = meetingRepository.findById(meetingId)
                 .orElseThrow(() -> new RuntimeException(MSG_MEETING_NOT_FOUND));
 
-        // Remove participant by email to ensure correct removal from ManyToMany relationship
-        boolean removed = meeting.getParticipants().removeIf(p -> p.getEmail().equals(participantEmail));
-        
-        if (!removed) {
+        // Delete the membership row directly; only the caller that actually removed it adjusts the count
+        if (meetingRepository.removeParticipant(meetingId, participantEmail) == 0) {
             return meeting;
         }
-        
-        Meeting savedMeeting = meetingRepository.save(meeting);
+        meetingRepository.adjustParticipantCount(meetingId, -1);
+        meeting.setCurrentParticipantCount(meetingRepository.findParticipantCount(meetingId));
+        activeMeetings.update(MeetingSnapshot.from(meeting));
         
         // Broadcast warroom.participants event via WebSocket
-        Map<String, Object> event = new HashMap<>();
-        event.put("type", "warroom.participants");
-        event.put(KEY_WAR_ROOM_ID, savedMeeting.getId());
-        event.put(KEY_CURRENT_PARTICIPANT_COUNT, savedMeeting.getCurrentParticipantCount());
-        event.put("action", "left");
-        event.put("userEmail", participantEmail);
+        socketHandler.broadcastEvent(new WarRoomParticipantsEvent(
+                meeting.getId(), meeting.getCurrentParticipantCount(), WarRoomParticipantsEvent.LEFT, participantEmail));
         
-        socketHandler.broadcastObject(event);
-        
-        return savedMeeting;
+        return meeting;
     }
 
     @Override
@@ -281,10 +234,22 @@ public class MeetingServiceImpl implements MeetingService {
     @Override
     @Transactional(readOnly = true)
     public Meeting getMeetingByCode(String code) {
+        // Callers need the entity (creator, participants); one lookup by the unique code is as cheap as by id
         return meetingRepository.findByCode(code)
                 .orElseThrow(() -> new RuntimeException(MSG_MEETING_NOT_FOUND));
     }
 
+    /**
+     * Resumen de la reunión servido desde memoria para reuniones activas; consulta la base si no está
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public MeetingSnapshot getMeetingSnapshot(Long meetingId) {
+        return activeMeetings.byId(meetingId)
+                .or(() -> meetingRepository.findById(meetingId).map(MeetingSnapshot::from))
+                .orElseThrow(() -> new RuntimeException(MSG_MEETING_NOT_FOUND));
+    }
+
 
 
     /**
@@ -300,28 +265,22 @@ public class MeetingServiceImpl implements MeetingService {
     }
 
     /**
-     * Envía actualización de duración en tiempo real via WebSocket
+     * Envía la duración de todas las reuniones activas en un solo frame, desde el registro en memoria
      */
     @Override
-    public void broadcastDurationUpdate(Long meetingId) {
-        try {
-            Meeting meeting = meetingRepository.findById(meetingId).orElse(null);
-            if (meeting != null && meeting.getStatus().equals(STATUS_ACTIVE)) {
-                long durationSeconds = getCurrentMeetingDurationSeconds(meeting);
-                
-                Map<String, Object> event = new HashMap<>();
-                event.put("type", "warroom.duration.update");
-                event.put(KEY_WAR_ROOM_ID, meetingId);
-                event.put(KEY_DURATION_SECONDS, durationSeconds);
-                event.put("durationMinutes", durationSeconds / 60);
-                event.put("timestamp", LocalDateTime.now(java.time.ZoneOffset.UTC).toString());
-                
-                socketHandler.broadcastObject(event);
-                logger.debug("Broadcasted duration update for meeting {}: {} seconds", meetingId, durationSeconds);
-            }
-        } catch (Exception e) {
-            logger.error("Error broadcasting duration update for meeting {}: {}", meetingId, e.getMessage());
+    public int broadcastActiveDurations() {
+        var active = activeMeetings.active();
+        if (active.isEmpty()) {
+            return 0;
         }
+        LocalDateTime now = LocalDateTime.now(java.time.ZoneOffset.UTC);
+        List<WarRoomDurationBatchEvent.Duration> durations = new ArrayList<>(active.size());
+        for (MeetingSnapshot meeting : active) {
+            long seconds = meeting.startTime() != null ? java.time.Duration.between(meeting.startTime(), now).getSeconds() : 0L;
+            durations.add(new WarRoomDurationBatchEvent.Duration(meeting.id(), seconds));
+        }
+        socketHandler.broadcastEvent(new WarRoomDurationBatchEvent(now.toString(), durations));
+        return durations.size();
     }
 
     @Override
@@ -335,6 +294,8 @@ public class MeetingServiceImpl implements MeetingService {
             throw new RuntimeException("Only the meeting creator can mark incident as resolved");
         }
 
+        boolean wasActive = !"ENDED".equals(meeting.getStatus());
+
         // Calculate duration and end meeting
         LocalDateTime endTime = LocalDateTime.now(java.time.ZoneOffset.UTC);
         long durationSeconds = java.time.Duration.between(meeting.getStartTime(), endTime).getSeconds();
@@ -344,19 +305,37 @@ public class MeetingServiceImpl implements MeetingService {
         meeting.setDurationSeconds(durationSeconds);
         
         Meeting savedMeeting = meetingRepository.save(meeting);
+        activeMeetings.update(MeetingSnapshot.from(savedMeeting));
+
+        // Alerts of a resolved war room no longer count as active
+        if (wasActive) {
+            var resolved = alertRepository.countByWarRoomIdGroupBySeverity(meetingId);
+            afterCommit(() -> severityCounters.add(resolved, -1));
+        }
 
         // Broadcast meeting ended event via WebSocket
-        Map<String, Object> event = new HashMap<>();
-        event.put("type", "warroom.resolved");
-        event.put(KEY_WAR_ROOM_ID, savedMeeting.getId());
-        event.put("resolvedAt", savedMeeting.getEndTime().toString());
-        event.put(KEY_DURATION_SECONDS, savedMeeting.getDurationSeconds());
-        
-        socketHandler.broadcastObject(event);
+        socketHandler.broadcastEvent(new WarRoomResolvedEvent(
+                savedMeeting.getId(), savedMeeting.getEndTime().toString(), savedMeeting.getDurationSeconds()));
         
         return savedMeeting;
     }
 
+    /**
+     * Los contadores en memoria solo cambian si la transacción confirma; un rollback no los desajusta.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
     private String generateUniqueCode() {
         String code;
         do {
@@ -0,0 +1,126 @@
+package com.arsw.ids_ia.utils.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Small concurrent cache bounded by entry count and per-entry expiry.
+ * Eviction is first-in-first-out by insertion, which suits the write-once, short-lived
+ * entries it is used for; expired entries are ignored on read and dropped as capacity is reclaimed.
+ */
+public class BoundedTtlCache<K, V> {
+
+    // stamp identifies the insertion that queued the key; overwrites keep it, so the entry keeps its place in line
+    private record Entry<V>(V value, long expiresAtNanos, long stamp) {
+        boolean isExpired(long now) {
+            return expiresAtNanos - now <= 0;
+        }
+    }
+
+    private record Queued<K>(K key, long stamp) {
+    }
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    // Keys in insertion order; may hold stale stamps of keys invalidated (and possibly re-put) since, bounded by queuedKeys
+    private final ConcurrentLinkedQueue<Queued<K>> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedKeys = new AtomicInteger();
+    private final AtomicLong stamps = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final int maxSize;
+    private final Duration defaultTtl;
+
+    public BoundedTtlCache(int maxSize, Duration defaultTtl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.defaultTtl = defaultTtl;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.isExpired(System.nanoTime())) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    public void put(K key, V value) {
+        put(key, value, defaultTtl);
+    }
+
+    public void put(K key, V value, Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        long expiresAt = System.nanoTime() + ttl.toNanos();
+        long[] queued = {0};
+        entries.compute(key, (k, previous) -> {
+            if (previous != null) {
+                return new Entry<>(value, expiresAt, previous.stamp());
+            }
+            queued[0] = stamps.incrementAndGet();
+            return new Entry<>(value, expiresAt, queued[0]);
+        });
+        if (queued[0] != 0) {
+            insertionOrder.add(new Queued<>(key, queued[0]));
+            queuedKeys.incrementAndGet();
+            evictOverflow();
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private void evictOverflow() {
+        while (entries.size() > maxSize || queuedKeys.get() > 2 * maxSize) {
+            Queued<K> oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queuedKeys.decrementAndGet();
+            // A stale stamp belongs to an entry that is gone; the key's current entry, if any, is queued further back
+            boolean[] evicted = {false};
+            entries.computeIfPresent(oldest.key(), (k, entry) -> {
+                if (entry.stamp() != oldest.stamp()) {
+                    return entry;
+                }
+                evicted[0] = true;
+                return null;
+            });
+            if (evicted[0]) {
+                evictions.increment();
+            }
+        }
+    }
+}
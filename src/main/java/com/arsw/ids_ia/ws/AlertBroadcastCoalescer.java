@@ -0,0 +1,117 @@
+package com.arsw.ids_ia.ws;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.arsw.ids_ia.ws.event.AlertBatchEvent;
+import com.arsw.ids_ia.ws.event.AlertEvent;
+import com.arsw.ids_ia.ws.event.AlertPayload;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Adaptive coalescing in front of {@link TrafficSocketHandler} for alert broadcasts. When nothing
+ * was sent during the last window an alert goes out immediately as a single {@code alert} frame;
+ * alerts arriving while a window is still open are held and flushed together as one
+ * {@code alerts.batch} frame when it closes (or earlier once {@code max-batch} is reached).
+ * All sends happen under one lock, so frames leave in the order the alerts were submitted.
+ */
+@Component
+public class AlertBroadcastCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertBroadcastCoalescer.class);
+
+    private final TrafficSocketHandler socketHandler;
+    private final ScheduledExecutorService scheduler;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final DistributionSummary frameSize;
+
+    private final Object lock = new Object();
+    private List<AlertPayload> pending = new ArrayList<>();
+    private boolean flushScheduled;
+    private long lastSentAt;
+
+    public AlertBroadcastCoalescer(TrafficSocketHandler socketHandler,
+            @Qualifier("alertCoalesceScheduler") ScheduledExecutorService scheduler, MeterRegistry meterRegistry,
+            @Value("${app.ws.coalesce.window:50ms}") Duration window,
+            @Value("${app.ws.coalesce.max-batch:500}") int maxBatch) {
+        this.socketHandler = socketHandler;
+        this.scheduler = scheduler;
+        this.windowNanos = window.toNanos();
+        this.maxBatch = Math.max(1, maxBatch);
+        this.lastSentAt = System.nanoTime() - windowNanos;
+        this.frameSize = DistributionSummary.builder("ids.ws.alerts.frame.size")
+                .description("Alerts carried by each broadcast alert frame")
+                .register(meterRegistry);
+    }
+
+    public void submit(AlertPayload alert) {
+        submitAll(List.of(alert));
+    }
+
+    public void submitAll(List<AlertPayload> alerts) {
+        if (alerts.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            pending.addAll(alerts);
+            if (flushScheduled && pending.size() < maxBatch) {
+                return;
+            }
+            long waitNanos = lastSentAt + windowNanos - System.nanoTime();
+            if (waitNanos <= 0 || pending.size() >= maxBatch) {
+                flushLocked();
+            } else if (!flushScheduled) {
+                schedule(waitNanos);
+            }
+        }
+    }
+
+    private void schedule(long delayNanos) {
+        flushScheduled = true;
+        try {
+            scheduler.schedule(this::flush, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // shutting down: send what we have rather than lose it
+            flushLocked();
+        }
+    }
+
+    void flush() {
+        synchronized (lock) {
+            flushLocked();
+        }
+    }
+
+    private void flushLocked() {
+        flushScheduled = false;
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<AlertPayload> toSend = pending;
+        pending = new ArrayList<>();
+        lastSentAt = System.nanoTime();
+        frameSize.record(toSend.size());
+        try {
+            if (toSend.size() == 1) {
+                socketHandler.broadcastEvent(new AlertEvent(toSend.get(0)));
+            } else {
+                socketHandler.broadcastEvent(new AlertBatchEvent(toSend));
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to broadcast {} coalesced alerts: {}", toSend.size(), e.getMessage());
+        }
+    }
+}
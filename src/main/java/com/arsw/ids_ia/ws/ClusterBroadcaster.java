@@ -0,0 +1,12 @@
+package com.arsw.ids_ia.ws;
+
+import com.arsw.ids_ia.ws.event.WsEvent;
+
+/**
+ * Forwards events broadcast on this node to the other replicas, which fan them out to their own
+ * sessions. Absent when the application runs as a single node.
+ */
+public interface ClusterBroadcaster {
+
+    void publish(WsEvent event);
+}
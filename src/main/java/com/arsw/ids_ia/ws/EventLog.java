@@ -0,0 +1,67 @@
+package com.arsw.ids_ia.ws;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.web.socket.TextMessage;
+
+import com.arsw.ids_ia.ws.event.WsEvent;
+
+/**
+ * Fixed-size ring of the most recent broadcast events, used to replay what a reconnecting client
+ * missed. Each instance numbers its events from a random base (kept below 2^53 so browsers read
+ * them exactly), so a position issued by another replica or before a restart falls outside the
+ * buffer and triggers a resync instead of matching unrelated events. Not thread-safe; the handler
+ * guards it.
+ */
+class EventLog {
+
+    record Entry(long seq, WsEvent event, TextMessage frame) {
+    }
+
+    private final Entry[] ring;
+    private long lastSeq;
+    private int size;
+
+    EventLog(int capacity) {
+        this.ring = new Entry[Math.max(1, capacity)];
+        // 20 random bits above a 2^33 counter range per instance
+        this.lastSeq = ThreadLocalRandom.current().nextLong(1L << 20) << 33;
+    }
+
+    long nextSeq() {
+        return lastSeq + 1;
+    }
+
+    void append(Entry entry) {
+        lastSeq = entry.seq();
+        ring[(int) (entry.seq() % ring.length)] = entry;
+        if (size < ring.length) {
+            size++;
+        }
+    }
+
+    long lastSeq() {
+        return lastSeq;
+    }
+
+    long oldestSeq() {
+        return lastSeq - size + 1;
+    }
+
+    /**
+     * @return events after {@code seq} in order, or null when some of them are no longer buffered
+     *         (or {@code seq} was never issued by this instance)
+     */
+    List<Entry> since(long seq) {
+        if (seq > lastSeq || seq < oldestSeq() - 1) {
+            return null;
+        }
+        List<Entry> entries = new ArrayList<>((int) (lastSeq - seq));
+        for (long s = seq + 1; s <= lastSeq; s++) {
+            entries.add(ring[(int) (s % ring.length)]);
+        }
+        return entries;
+    }
+}
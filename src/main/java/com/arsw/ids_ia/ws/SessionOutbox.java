@@ -0,0 +1,134 @@
+package com.arsw.ids_ia.ws;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.arsw.ids_ia.ws.event.AlertSubscription;
+
+/**
+ * Bounded outbound queue for one WebSocket session. Producers only enqueue; at most one drain task
+ * per session runs on the send executor, which keeps frames in order and respects the
+ * single-sender rule of {@link WebSocketSession}. When the queue is full new frames are dropped
+ * and the time since it filled up is tracked so the handler can evict the slow consumer.
+ */
+class SessionOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionOutbox.class);
+
+    private final WebSocketSession session;
+    private final BlockingQueue<TextMessage> queue;
+    private final Executor executor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong dropped = new AtomicLong();
+    // System.nanoTime() when the queue first overflowed / the current send started; 0 when not applicable
+    private final AtomicLong overflowingSince = new AtomicLong();
+    private final AtomicLong sendStartedAt = new AtomicLong();
+    private volatile AlertSubscription subscription = AlertSubscription.ALL;
+
+    SessionOutbox(WebSocketSession session, int capacity, Executor executor) {
+        this.session = session;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.executor = executor;
+    }
+
+    WebSocketSession session() {
+        return session;
+    }
+
+    AlertSubscription subscription() {
+        return subscription;
+    }
+
+    void subscribe(AlertSubscription subscription) {
+        this.subscription = subscription;
+    }
+
+    /**
+     * @return false when the frame was dropped because the session is not keeping up
+     */
+    boolean offer(TextMessage message) {
+        if (!queue.offer(message)) {
+            dropped.incrementAndGet();
+            overflowingSince.compareAndSet(0L, System.nanoTime());
+            return false;
+        }
+        overflowingSince.set(0L);
+        scheduleDrain();
+        return true;
+    }
+
+    int depth() {
+        return queue.size();
+    }
+
+    long droppedCount() {
+        return dropped.get();
+    }
+
+    /** Nanoseconds this session has been overflowing or stuck in a single send, 0 if healthy. */
+    long stalledForNanos(long now) {
+        long since = overflowingSince.get();
+        long sending = sendStartedAt.get();
+        long stalled = since != 0L ? now - since : 0L;
+        if (sending != 0L) {
+            stalled = Math.max(stalled, now - sending);
+        }
+        return stalled;
+    }
+
+    void close(CloseStatus status) {
+        queue.clear();
+        try {
+            session.close(status);
+        } catch (IOException ignored) {
+            // already gone
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                logger.warn("WS send executor rejected drain for {}: {}", session.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            TextMessage message;
+            while ((message = queue.poll()) != null) {
+                if (!session.isOpen()) {
+                    queue.clear();
+                    return;
+                }
+                sendStartedAt.set(System.nanoTime());
+                session.sendMessage(message);
+                sendStartedAt.set(0L);
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.warn("Error sending WS message to {}: {}", session.getId(), e.getMessage());
+            close(CloseStatus.SERVER_ERROR);
+        } finally {
+            sendStartedAt.set(0L);
+            draining.set(false);
+            // a producer may have enqueued after the last poll but before the flag was released
+            if (!queue.isEmpty() && session.isOpen()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -1,74 +1,305 @@
 package com.arsw.ids_ia.ws;
 
-import java.io.IOException;
-import java.util.Set;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import com.arsw.ids_ia.ws.event.AlertBatchEvent;
+import com.arsw.ids_ia.ws.event.AlertEvent;
+import com.arsw.ids_ia.ws.event.AlertPayload;
+import com.arsw.ids_ia.ws.event.AlertSubscription;
+import com.arsw.ids_ia.ws.event.ErrorEvent;
+import com.arsw.ids_ia.ws.event.ResyncEvent;
+import com.arsw.ids_ia.ws.event.SubscriptionEvent;
+import com.arsw.ids_ia.ws.event.WsEvent;
+import com.arsw.ids_ia.ws.event.WsEventEncoder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Component
 public class TrafficSocketHandler extends TextWebSocketHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(TrafficSocketHandler.class);
 
-    private final Set<WebSocketSession> sessions = ConcurrentHashMap.newKeySet();
+    private final Map<String, SessionOutbox> outboxes = new ConcurrentHashMap<>();
     // Configure ObjectMapper to handle Java 8+ date/time types (Instant)
     private final ObjectMapper mapper = new ObjectMapper()
         .registerModule(new JavaTimeModule())
         .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final WsEventEncoder encoder = new WsEventEncoder(mapper);
+    private final Object sequenceLock = new Object();
+    private final EventLog eventLog;
+
+    private final Executor sendExecutor;
+    private final ObjectProvider<ClusterBroadcaster> clusterBroadcaster;
+    private final int queueCapacity;
+    private final long slowConsumerTimeoutNanos;
+    private final Counter droppedFrames;
+    private final Counter evictedSessions;
+    private final Map<String, Counter> resumes;
 
-    
+    public TrafficSocketHandler(@Qualifier("webSocketSendExecutor") Executor sendExecutor, MeterRegistry meterRegistry,
+            ObjectProvider<ClusterBroadcaster> clusterBroadcaster,
+            @Value("${app.ws.queue-capacity:1024}") int queueCapacity,
+            @Value("${app.ws.slow-consumer-timeout:10s}") Duration slowConsumerTimeout,
+            @Value("${app.ws.replay.capacity:4096}") int replayCapacity) {
+        this.sendExecutor = sendExecutor;
+        this.clusterBroadcaster = clusterBroadcaster;
+        this.queueCapacity = queueCapacity;
+        this.slowConsumerTimeoutNanos = slowConsumerTimeout.toNanos();
+        this.eventLog = new EventLog(replayCapacity);
+
+        this.droppedFrames = Counter.builder("ids.ws.outbound.dropped")
+                .description("Frames dropped because a session queue was full")
+                .register(meterRegistry);
+        this.evictedSessions = Counter.builder("ids.ws.sessions.evicted")
+                .description("Sessions closed for not keeping up")
+                .register(meterRegistry);
+        this.resumes = Map.of(
+                "replayed", Counter.builder("ids.ws.resumes").tag("result", "replayed").register(meterRegistry),
+                "resync", Counter.builder("ids.ws.resumes").tag("result", "resync").register(meterRegistry));
+        Gauge.builder("ids.ws.sessions", outboxes, Map::size).register(meterRegistry);
+        Gauge.builder("ids.ws.outbound.queue.depth", this, TrafficSocketHandler::totalQueueDepth)
+                .description("Frames waiting in all session queues")
+                .register(meterRegistry);
+        Gauge.builder("ids.ws.outbound.queue.max", this, TrafficSocketHandler::maxQueueDepth)
+                .description("Deepest single session queue")
+                .register(meterRegistry);
+    }
 
+    /**
+     * A client that reconnects with {@code ?lastSeq=N} gets the events it missed replayed before any
+     * live event; if they are no longer buffered it gets a {@code resync} frame and should reload
+     * over REST.
+     */
     @Override
     public void afterConnectionEstablished(WebSocketSession session) {
-        sessions.add(session);
-        logger.info("WebSocket connected: {} (open sessions={})", session.getId(), sessions.size());
-        // push-only handler: do not read or send historic alerts here
+        SessionOutbox outbox = new SessionOutbox(session, queueCapacity, sendExecutor);
+        Long lastSeq = requestedResumePoint(session);
+        // replay and registration happen atomically with respect to broadcasts, so nothing is
+        // delivered twice or out of order
+        synchronized (sequenceLock) {
+            if (lastSeq != null) {
+                replay(outbox, lastSeq);
+            }
+            outboxes.put(session.getId(), outbox);
+        }
+        logger.info("WebSocket connected: {} (open sessions={}, resumeFrom={})", session.getId(), outboxes.size(), lastSeq);
     }
 
+    /**
+     * Accepts {@code subscribe} / {@code unsubscribe} messages that narrow which alerts this session
+     * receives (see {@link AlertSubscription}). War-room events are not filtered.
+     */
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) {
-        // push-only; ignore client messages
+        SessionOutbox outbox = outboxes.get(session.getId());
+        if (outbox == null) {
+            return;
+        }
+        try {
+            JsonNode node = mapper.readTree(message.getPayload());
+            String action = node.path("action").asText("").toLowerCase(Locale.ROOT);
+            switch (action) {
+                case "subscribe" -> outbox.subscribe(AlertSubscription.fromJson(node));
+                case "unsubscribe" -> outbox.subscribe(AlertSubscription.ALL);
+                default -> throw new IllegalArgumentException("Unknown action: " + action);
+            }
+            logger.debug("WebSocket {} subscription: {}", session.getId(), outbox.subscription());
+            outbox.offer(encoder.encode(new SubscriptionEvent(outbox.subscription())));
+        } catch (Exception e) {
+            logger.debug("Rejected WS message from {}: {}", session.getId(), e.getMessage());
+            try {
+                outbox.offer(encoder.encode(new ErrorEvent("Invalid message: " + e.getMessage())));
+            } catch (Exception ignored) {
+                // nothing more to tell the client
+            }
+        }
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
-        sessions.remove(session);
-        logger.info("WebSocket closed: {} (open sessions={})", session.getId(), sessions.size());
+        outboxes.remove(session.getId());
+        logger.info("WebSocket closed: {} (open sessions={})", session.getId(), outboxes.size());
     }
 
-    public void broadcastObject(Object obj) {
+    /**
+     * Sends the event to this node's sessions and, in cluster mode, relays it to the other replicas.
+     */
+    public void broadcastEvent(WsEvent event) {
+        broadcastLocal(event);
+        ClusterBroadcaster cluster = clusterBroadcaster.getIfAvailable();
+        if (cluster != null) {
+            cluster.publish(event);
+        }
+    }
+
+    /**
+     * Assigns the event the next sequence number, records it for replay, encodes it once with its
+     * type's pre-built writer and shares the frame across this node's sessions. Alert events only
+     * reach sessions whose subscription matches; a batch is re-encoded once per distinct filter,
+     * not once per session.
+     */
+    public void broadcastLocal(WsEvent event) {
         try {
-            String payload = mapper.writeValueAsString(obj);
-            broadcast(payload);
+            synchronized (sequenceLock) {
+                long seq = eventLog.nextSeq();
+                EventLog.Entry entry = new EventLog.Entry(seq, event, encoder.encode(event, seq));
+                eventLog.append(entry);
+                Map<AlertSubscription, TextMessage> filtered = new HashMap<>();
+                for (SessionOutbox outbox : outboxes.values()) {
+                    TextMessage frame = frameFor(entry, outbox.subscription(), filtered);
+                    if (frame != null) {
+                        deliver(outbox, frame);
+                    }
+                }
+            }
         } catch (Exception e) {
-            logger.warn("Error serializing WS payload: {}", e.getMessage());
+            logger.warn("Error serializing WS event {}: {}", event.type(), e.getMessage());
         }
     }
 
-    public void broadcast(String payload) {
-        TextMessage message = new TextMessage(payload);
-        sessions.removeIf(session -> !session.isOpen());
-        for (WebSocketSession session : sessions) {
-            try {
-                session.sendMessage(message);
-            } catch (IOException e) {
-                logger.warn("Error sending WS message to {}: {}", session.getId(), e.getMessage());
-                try {
-                    session.close(CloseStatus.SERVER_ERROR);
-                } catch (IOException ignored) {
+    /**
+     * @return the frame a session with this subscription should get for the entry, or null if none
+     *         of it matches; filtered batch frames are cached per subscription in {@code filtered}
+     */
+    private TextMessage frameFor(EventLog.Entry entry, AlertSubscription subscription,
+            Map<AlertSubscription, TextMessage> filtered) throws JsonProcessingException {
+        if (subscription.isAll()) {
+            return entry.frame();
+        }
+        if (entry.event() instanceof AlertEvent alertEvent) {
+            return subscription.matches(alertEvent.alert()) ? entry.frame() : null;
+        }
+        if (entry.event() instanceof AlertBatchEvent batch) {
+            if (filtered.containsKey(subscription)) {
+                return filtered.get(subscription);
+            }
+            List<AlertPayload> matching = batch.alerts().stream().filter(subscription::matches).toList();
+            TextMessage frame;
+            if (matching.isEmpty()) {
+                frame = null;
+            } else if (matching.size() == batch.alerts().size()) {
+                frame = entry.frame();
+            } else {
+                frame = encoder.encode(new AlertBatchEvent(matching), entry.seq());
+            }
+            filtered.put(subscription, frame);
+            return frame;
+        }
+        return entry.frame();
+    }
+
+    /**
+     * Queues everything after {@code lastSeq} for the new session, or a resync notice when the gap
+     * is not fully buffered or would not fit in the session queue. Caller holds the sequence lock.
+     */
+    private void replay(SessionOutbox outbox, long lastSeq) {
+        try {
+            List<EventLog.Entry> missed = eventLog.since(lastSeq);
+            if (missed == null || missed.size() > queueCapacity) {
+                resumes.get("resync").increment();
+                outbox.offer(encoder.encode(new ResyncEvent(eventLog.lastSeq())));
+                return;
+            }
+            resumes.get("replayed").increment();
+            Map<AlertSubscription, TextMessage> filtered = new HashMap<>();
+            for (EventLog.Entry entry : missed) {
+                filtered.clear();
+                TextMessage frame = frameFor(entry, outbox.subscription(), filtered);
+                if (frame != null) {
+                    outbox.offer(frame);
                 }
             }
+        } catch (Exception e) {
+            logger.warn("Error replaying WS events for {}: {}", outbox.session().getId(), e.getMessage());
+        }
+    }
+
+    private static Long requestedResumePoint(WebSocketSession session) {
+        if (session.getUri() == null) {
+            return null;
+        }
+        String value = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst("lastSeq");
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE; // unparseable position: treat as out of range and resync
+        }
+    }
+
+    /**
+     * Enqueues and returns immediately; delivery happens on the send executor. Sessions whose queue
+     * is full lose the frame and are evicted if they stay stalled.
+     */
+    private void deliver(SessionOutbox outbox, TextMessage message) {
+        if (!outbox.session().isOpen()) {
+            outboxes.remove(outbox.session().getId());
+            return;
+        }
+        if (!outbox.offer(message)) {
+            droppedFrames.increment();
+        }
+    }
+
+    /**
+     * Closes sessions that have been overflowing, or blocked in a single send, for longer than the
+     * slow-consumer timeout. Closing also unblocks a send stuck on a dead TCP connection.
+     */
+    @Scheduled(fixedDelayString = "${app.ws.slow-consumer-check-ms:1000}")
+    public void evictSlowConsumers() {
+        long now = System.nanoTime();
+        for (SessionOutbox outbox : outboxes.values()) {
+            if (outbox.stalledForNanos(now) > slowConsumerTimeoutNanos) {
+                logger.warn("Evicting slow WebSocket consumer {} (queued={}, dropped={})",
+                        outbox.session().getId(), outbox.depth(), outbox.droppedCount());
+                outboxes.remove(outbox.session().getId());
+                evictedSessions.increment();
+                outbox.close(CloseStatus.SESSION_NOT_RELIABLE);
+            }
+        }
+    }
+
+    private double totalQueueDepth() {
+        long depth = 0;
+        for (SessionOutbox outbox : outboxes.values()) {
+            depth += outbox.depth();
+        }
+        return depth;
+    }
+
+    private double maxQueueDepth() {
+        int max = 0;
+        for (SessionOutbox outbox : outboxes.values()) {
+            max = Math.max(max, outbox.depth());
         }
+        return max;
     }
 }
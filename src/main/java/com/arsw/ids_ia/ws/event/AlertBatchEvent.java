@@ -0,0 +1,11 @@
+package com.arsw.ids_ia.ws.event;
+
+import java.util.List;
+
+public record AlertBatchEvent(String type, List<AlertPayload> alerts) implements WsEvent {
+    public static final String TYPE = "alerts.batch";
+
+    public AlertBatchEvent(List<AlertPayload> alerts) {
+        this(TYPE, alerts);
+    }
+}
@@ -0,0 +1,9 @@
+package com.arsw.ids_ia.ws.event;
+
+public record AlertEvent(String type, AlertPayload alert) implements WsEvent {
+    public static final String TYPE = "alert";
+
+    public AlertEvent(AlertPayload alert) {
+        this(TYPE, alert);
+    }
+}
@@ -0,0 +1,26 @@
+package com.arsw.ids_ia.ws.event;
+
+import java.time.Instant;
+
+import com.arsw.ids_ia.model.Alert;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Alert as shown to dashboards. {@code model_version} duplicates {@code modelVersion} for the
+ * frontend code that still reads the snake_case key.
+ */
+public record AlertPayload(
+    Long id,
+    String packetId,
+    String incidentId,
+    String severity,
+    Double score,
+    String modelVersion,
+    @JsonProperty("model_version") String modelVersionSnakeCase,
+    Instant timestamp
+) {
+    public static AlertPayload from(Alert alert) {
+        return new AlertPayload(alert.getId(), alert.getPacketId(), alert.getIncidentId(), alert.getSeverity(),
+                alert.getScore(), alert.getModelVersion(), alert.getModelVersion(), alert.getTimestamp());
+    }
+}
@@ -0,0 +1,84 @@
+package com.arsw.ids_ia.ws.event;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Alert filter chosen by one WebSocket session. Null fields (and an empty severity set) match
+ * everything, so {@link #ALL} is the default for sessions that never subscribe.
+ *
+ * <pre>
+ * {"action":"subscribe","severities":["critical","high"],"minScore":0.8,"modelVersion":"v2","incidentId":"INC-42"}
+ * {"action":"unsubscribe"}
+ * </pre>
+ */
+public record AlertSubscription(Set<String> severities, Double minScore, String modelVersion, String incidentId) {
+
+    public static final AlertSubscription ALL = new AlertSubscription(Set.of(), null, null, null);
+
+    private static final int MAX_SEVERITIES = 16;
+
+    public AlertSubscription {
+        severities = severities == null ? Set.of() : Set.copyOf(severities);
+    }
+
+    @JsonIgnore
+    public boolean isAll() {
+        return severities.isEmpty() && minScore == null && modelVersion == null && incidentId == null;
+    }
+
+    public boolean matches(AlertPayload alert) {
+        if (!severities.isEmpty()
+                && (alert.severity() == null || !severities.contains(alert.severity().toLowerCase(Locale.ROOT)))) {
+            return false;
+        }
+        if (minScore != null && (alert.score() == null || alert.score() < minScore)) {
+            return false;
+        }
+        if (modelVersion != null && !modelVersion.equals(alert.modelVersion())) {
+            return false;
+        }
+        return incidentId == null || incidentId.equals(alert.incidentId());
+    }
+
+    /**
+     * Reads the filter fields of a subscribe message; unknown fields are ignored.
+     */
+    public static AlertSubscription fromJson(JsonNode node) {
+        Set<String> severities = Set.of();
+        JsonNode sev = node.get("severities");
+        if (sev != null && !sev.isNull()) {
+            if (!sev.isArray() || sev.size() > MAX_SEVERITIES) {
+                throw new IllegalArgumentException("severities must be an array of at most " + MAX_SEVERITIES + " values");
+            }
+            severities = StreamSupport.stream(sev.spliterator(), false)
+                    .map(JsonNode::asText)
+                    .map(s -> s.trim().toLowerCase(Locale.ROOT))
+                    .filter(s -> !s.isEmpty())
+                    .collect(Collectors.toSet());
+        }
+        Double minScore = null;
+        JsonNode score = node.get("minScore");
+        if (score != null && !score.isNull()) {
+            if (!score.isNumber()) {
+                throw new IllegalArgumentException("minScore must be a number");
+            }
+            minScore = score.asDouble();
+        }
+        return new AlertSubscription(severities, minScore, text(node, "modelVersion"), text(node, "incidentId"));
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        String text = value.asText().trim();
+        return text.isEmpty() ? null : text;
+    }
+}
@@ -0,0 +1,12 @@
+package com.arsw.ids_ia.ws.event;
+
+/**
+ * Sent to a single session when one of its messages could not be handled.
+ */
+public record ErrorEvent(String type, String message) implements WsEvent {
+    public static final String TYPE = "error";
+
+    public ErrorEvent(String message) {
+        this(TYPE, message);
+    }
+}
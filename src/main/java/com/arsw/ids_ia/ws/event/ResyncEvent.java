@@ -0,0 +1,13 @@
+package com.arsw.ids_ia.ws.event;
+
+/**
+ * Tells a reconnecting client that the events it missed are no longer buffered, so it has to
+ * reload state over REST. {@code seq} is the position to resume from afterwards.
+ */
+public record ResyncEvent(String type, long seq) implements WsEvent {
+    public static final String TYPE = "resync";
+
+    public ResyncEvent(long seq) {
+        this(TYPE, seq);
+    }
+}
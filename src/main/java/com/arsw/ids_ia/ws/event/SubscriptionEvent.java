@@ -0,0 +1,12 @@
+package com.arsw.ids_ia.ws.event;
+
+/**
+ * Sent back to a single session after it subscribes or unsubscribes, echoing the active filter.
+ */
+public record SubscriptionEvent(String type, AlertSubscription subscription) implements WsEvent {
+    public static final String TYPE = "subscription";
+
+    public SubscriptionEvent(AlertSubscription subscription) {
+        this(TYPE, subscription);
+    }
+}
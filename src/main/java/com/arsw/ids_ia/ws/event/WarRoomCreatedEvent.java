@@ -0,0 +1,12 @@
+package com.arsw.ids_ia.ws.event;
+
+/**
+ * {@code linkedAlerts} is how many alerts of the incident were attached to the new war room.
+ */
+public record WarRoomCreatedEvent(String type, String incidentId, int linkedAlerts, WarRoomPayload warRoom) implements WsEvent {
+    public static final String TYPE = "warroom.created";
+
+    public WarRoomCreatedEvent(String incidentId, int linkedAlerts, WarRoomPayload warRoom) {
+        this(TYPE, incidentId, linkedAlerts, warRoom);
+    }
+}
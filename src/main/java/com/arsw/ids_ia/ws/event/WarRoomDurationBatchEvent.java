@@ -0,0 +1,17 @@
+package com.arsw.ids_ia.ws.event;
+
+import java.util.List;
+
+/**
+ * Elapsed time of every active war room, sent as one frame per scheduler tick.
+ */
+public record WarRoomDurationBatchEvent(String type, String timestamp, List<Duration> warRooms) implements WsEvent {
+    public static final String TYPE = "warroom.duration.batch";
+
+    public WarRoomDurationBatchEvent(String timestamp, List<Duration> warRooms) {
+        this(TYPE, timestamp, warRooms);
+    }
+
+    public record Duration(Long warRoomId, long durationSeconds) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.arsw.ids_ia.ws.event;
+
+public record WarRoomParticipantsEvent(
+    String type,
+    Long warRoomId,
+    Integer currentParticipantCount,
+    String action,
+    String userEmail
+) implements WsEvent {
+    public static final String TYPE = "warroom.participants";
+    public static final String JOINED = "joined";
+    public static final String LEFT = "left";
+
+    public WarRoomParticipantsEvent(Long warRoomId, Integer currentParticipantCount, String action, String userEmail) {
+        this(TYPE, warRoomId, currentParticipantCount, action, userEmail);
+    }
+}
@@ -0,0 +1,11 @@
+package com.arsw.ids_ia.ws.event;
+
+public record WarRoomPayload(
+    Long id,
+    String code,
+    String title,
+    String startTime,
+    Integer currentParticipantCount,
+    String status,
+    Long durationSeconds
+) {}
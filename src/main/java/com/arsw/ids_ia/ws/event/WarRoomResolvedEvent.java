@@ -0,0 +1,9 @@
+package com.arsw.ids_ia.ws.event;
+
+public record WarRoomResolvedEvent(String type, Long warRoomId, String resolvedAt, Long durationSeconds) implements WsEvent {
+    public static final String TYPE = "warroom.resolved";
+
+    public WarRoomResolvedEvent(Long warRoomId, String resolvedAt, Long durationSeconds) {
+        this(TYPE, warRoomId, resolvedAt, durationSeconds);
+    }
+}
@@ -0,0 +1,9 @@
+package com.arsw.ids_ia.ws.event;
+
+/**
+ * Event pushed to dashboards over /traffic/stream. Every event serializes with a top-level
+ * "type" discriminator that the frontend switches on.
+ */
+public interface WsEvent {
+    String type();
+}
@@ -0,0 +1,52 @@
+package com.arsw.ids_ia.ws.event;
+
+import org.springframework.web.socket.TextMessage;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Encodes events into WebSocket frames. Each event type gets a pre-built {@link ObjectWriter}, so
+ * serializer lookup happens once per type instead of once per broadcast, and an event is encoded
+ * once no matter how many sessions receive it.
+ */
+public class WsEventEncoder {
+
+    private final ObjectMapper mapper;
+    private final ClassValue<ObjectWriter> writers = new ClassValue<>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return mapper.writerFor(type);
+        }
+    };
+
+    public WsEventEncoder() {
+        this(new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
+
+    public WsEventEncoder(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    public String toJson(WsEvent event) throws JsonProcessingException {
+        return writers.get(event.getClass()).writeValueAsString(event);
+    }
+
+    public TextMessage encode(WsEvent event) throws JsonProcessingException {
+        return new TextMessage(toJson(event));
+    }
+
+    /**
+     * Encodes the event with a leading {@code "seq"} field. Events are records, so the JSON always
+     * starts with an object and the field can be spliced in without a second serialization pass.
+     */
+    public TextMessage encode(WsEvent event, long seq) throws JsonProcessingException {
+        String json = toJson(event);
+        return new TextMessage("{\"seq\":" + seq + "," + json.substring(1));
+    }
+}
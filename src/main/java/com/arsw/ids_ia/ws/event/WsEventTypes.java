@@ -0,0 +1,29 @@
+package com.arsw.ids_ia.ws.event;
+
+import java.util.Map;
+
+/**
+ * Event classes by their {@code type} discriminator, for reading events relayed between nodes.
+ * Only broadcast events are listed; per-session replies (subscription, error, resync) never leave
+ * the node that produced them.
+ */
+public final class WsEventTypes {
+
+    private static final Map<String, Class<? extends WsEvent>> BROADCAST_TYPES = Map.of(
+            AlertEvent.TYPE, AlertEvent.class,
+            AlertBatchEvent.TYPE, AlertBatchEvent.class,
+            WarRoomCreatedEvent.TYPE, WarRoomCreatedEvent.class,
+            WarRoomParticipantsEvent.TYPE, WarRoomParticipantsEvent.class,
+            WarRoomDurationBatchEvent.TYPE, WarRoomDurationBatchEvent.class,
+            WarRoomResolvedEvent.TYPE, WarRoomResolvedEvent.class);
+
+    private WsEventTypes() {
+    }
+
+    /**
+     * @return the event class for a broadcast type, or null if the type is unknown
+     */
+    public static Class<? extends WsEvent> broadcastType(String type) {
+        return type == null ? null : BROADCAST_TYPES.get(type);
+    }
+}
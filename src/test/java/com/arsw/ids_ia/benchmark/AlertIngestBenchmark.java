@@ -0,0 +1,70 @@
+package com.arsw.ids_ia.benchmark;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arsw.ids_ia.model.Alert;
+import com.arsw.ids_ia.repository.AlertRepository;
+import com.arsw.ids_ia.service.AlertDedupIndex;
+import com.arsw.ids_ia.service.AlertService;
+import com.arsw.ids_ia.service.AlertSeverityCounters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link AlertService#create} with a repository that answers instantly: the cost of the service
+ * itself (dedup index, counters, logging) per new alert, and for a replayed duplicate that the
+ * in-memory index answers. No WebSocket broadcaster is attached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlertIngestBenchmark {
+
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicLong packets = new AtomicLong();
+    private AlertService service;
+    private Alert duplicate;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        AlertRepository repository = BenchmarkSupport.stub(AlertRepository.class, Map.of(
+                "insertIfAbsent", args -> Optional.of(ids.incrementAndGet())));
+        AlertDedupIndex dedupIndex = new AlertDedupIndex(100_000, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        service = new AlertService(repository, null, dedupIndex, new AlertSeverityCounters(repository), 5000);
+        duplicate = service.create(alert("PKT-DUP"));
+    }
+
+    @Benchmark
+    public Alert createNew() {
+        return service.create(alert("PKT-" + packets.incrementAndGet()));
+    }
+
+    @Benchmark
+    public Alert createDuplicate() {
+        return service.create(alert(duplicate.getPacketId()));
+    }
+
+    private static Alert alert(String packetId) {
+        return new Alert(packetId, "INC-42", "high", 0.93, "v1", Instant.now());
+    }
+}
@@ -0,0 +1,79 @@
+package com.arsw.ids_ia.benchmark;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import com.arsw.ids_ia.controller.AlertController;
+import com.arsw.ids_ia.dto.response.AlertWarRoomView;
+import com.arsw.ids_ia.model.Alert;
+import com.arsw.ids_ia.repository.AlertRepository;
+import com.arsw.ids_ia.service.AlertService;
+import com.arsw.ids_ia.service.AlertSeverityCounters;
+import com.arsw.ids_ia.service.MeetingService;
+import com.arsw.ids_ia.service.MeetingSnapshot;
+
+/**
+ * Building the alert detail response in {@link AlertController}: one alert linked to a war room
+ * (GET /api/alerts/{id}) and a 50-row enriched list (GET /api/alerts/detailed). Repository and
+ * meeting service are instant stubs, so the score is response assembly only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlertResponseBenchmark {
+
+    private AlertController controller;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        LocalDateTime start = LocalDateTime.now().minusMinutes(5);
+        Alert alert = new Alert("PKT-1", "INC-1", "critical", 0.97, "v1", Instant.now());
+        alert.setId(1L);
+        alert.setWarRoomId(7L);
+        List<AlertWarRoomView> rows = LongStream.rangeClosed(1, 50)
+                .mapToObj(i -> new AlertWarRoomView(i, "INC-" + (i % 5), "PKT-" + i, "high", 0.9, "v1", Instant.now(),
+                        i % 2 == 0 ? 7L : null, i % 2 == 0 ? "WR-7" : null, i % 2 == 0 ? start : null, null,
+                        i % 2 == 0 ? "ACTIVE" : null))
+                .toList();
+
+        AlertRepository repository = BenchmarkSupport.stub(AlertRepository.class, Map.of(
+                "findById", args -> Optional.of(alert),
+                "findActiveWithWarRoom", args -> rows));
+        MeetingSnapshot meeting = new MeetingSnapshot(7L, "WR-7", "War room", "ACTIVE", start, null, 4);
+        MeetingService meetingService = BenchmarkSupport.stub(MeetingService.class, Map.of(
+                "getMeetingSnapshot", args -> meeting));
+        AlertService service = new AlertService(repository, null, null, new AlertSeverityCounters(repository), 5000);
+        controller = new AlertController(service, meetingService, new AlertSeverityCounters(repository), null);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> singleAlert() {
+        return controller.get(1L);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> detailedListOf50() {
+        return controller.detailed(50);
+    }
+}
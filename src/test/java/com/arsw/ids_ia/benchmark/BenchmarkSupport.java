@@ -0,0 +1,64 @@
+package com.arsw.ids_ia.benchmark;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+/**
+ * Helpers shared by the hot-path benchmarks: interface stubs that answer in constant time (so the
+ * score is the code under test, not a mocking framework) and logging turned down to WARN, since
+ * Spring Boot's logging setup does not run inside a JMH fork.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    /**
+     * Implements {@code type} with the given answers by method name; every other method returns
+     * an empty Optional, zero, false or null.
+     */
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            return defaultValue(self, method, args);
+        });
+        return type.cast(proxy);
+    }
+
+    private static Object defaultValue(Object self, Method method, Object[] args) {
+        Class<?> returnType = method.getReturnType();
+        return switch (method.getName()) {
+            case "hashCode" -> System.identityHashCode(self);
+            case "equals" -> self == args[0];
+            case "toString" -> method.getDeclaringClass().getSimpleName() + " stub";
+            default -> {
+                if (returnType == Optional.class) {
+                    yield Optional.empty();
+                } else if (returnType == boolean.class) {
+                    yield false;
+                } else if (returnType == int.class) {
+                    yield 0;
+                } else if (returnType == long.class) {
+                    yield 0L;
+                } else {
+                    yield null;
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.arsw.ids_ia.benchmark;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.arsw.ids_ia.ws.ClusterBroadcaster;
+import com.arsw.ids_ia.ws.TrafficSocketHandler;
+import com.arsw.ids_ia.ws.event.AlertEvent;
+import com.arsw.ids_ia.ws.event.AlertPayload;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * One alert broadcast through {@link TrafficSocketHandler#broadcastEvent} to N open sessions:
+ * sequencing, encoding once, and enqueue plus drain per session. Sends run inline on the calling
+ * thread and the sessions discard frames, so the score is the server-side fan-out cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastFanOutBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int sessions;
+
+    private TrafficSocketHandler handler;
+    private AlertEvent event;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        handler = new TrafficSocketHandler(Runnable::run, new SimpleMeterRegistry(),
+                new StaticListableBeanFactory().getBeanProvider(ClusterBroadcaster.class), 1024, Duration.ofSeconds(10), 4096);
+        for (int i = 0; i < sessions; i++) {
+            handler.afterConnectionEstablished(session("s-" + i));
+        }
+        event = new AlertEvent(new AlertPayload(1L, "PKT-1", "INC-1", "critical", 0.98, "v1", "v1", Instant.now()));
+    }
+
+    @Benchmark
+    public void broadcastAlert() {
+        handler.broadcastEvent(event);
+    }
+
+    private static WebSocketSession session(String id) {
+        Map<String, Object> attributes = new HashMap<>();
+        return BenchmarkSupport.stub(WebSocketSession.class, Map.of(
+                "getId", args -> id,
+                "isOpen", args -> true,
+                "getUri", args -> URI.create("ws://localhost/traffic/stream"),
+                "getAttributes", args -> attributes));
+    }
+}
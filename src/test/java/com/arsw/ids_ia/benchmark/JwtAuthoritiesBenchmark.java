@@ -0,0 +1,70 @@
+package com.arsw.ids_ia.benchmark;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import com.arsw.ids_ia.model.User;
+import com.arsw.ids_ia.repository.UserRepository;
+import com.arsw.ids_ia.security.JwtUserAuthoritiesConverter;
+import com.arsw.ids_ia.utils.enums.Role;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link JwtUserAuthoritiesConverter#convert} for a returning user (cache hit) and for a user seen
+ * for the first time (cache miss, lookup in an instant stub repository).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthoritiesBenchmark {
+
+    private final AtomicLong newUsers = new AtomicLong();
+    private JwtUserAuthoritiesConverter converter;
+    private Jwt returning;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        UserRepository repository = BenchmarkSupport.stub(UserRepository.class, Map.of(
+                "findByEmail", args -> Optional.of(User.builder().email((String) args[0]).role(Role.USER).build())));
+        converter = new JwtUserAuthoritiesConverter(repository, new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(5));
+        returning = jwt("analyst@ids.test");
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> returningUser() {
+        return converter.convert(returning);
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> firstSeenUser() {
+        return converter.convert(jwt("user" + newUsers.incrementAndGet() + "@ids.test"));
+    }
+
+    private static Jwt jwt(String email) {
+        return Jwt.withTokenValue("token").header("alg", "RS256").claim("email", email)
+                .issuedAt(Instant.now()).expiresAt(Instant.now().plusSeconds(3600)).build();
+    }
+}
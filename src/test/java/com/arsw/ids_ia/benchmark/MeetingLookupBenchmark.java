@@ -0,0 +1,71 @@
+package com.arsw.ids_ia.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arsw.ids_ia.model.Meeting;
+import com.arsw.ids_ia.repository.MeetingRepository;
+import com.arsw.ids_ia.service.ActiveMeetingRegistry;
+import com.arsw.ids_ia.service.MeetingSnapshot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Reading a war room's participant count: straight from the entity (a stored column since the
+ * count stopped being derived from the participant set), and through the active-meeting registry
+ * by code, which is how the join and lookup endpoints resolve meetings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeetingLookupBenchmark {
+
+    private Meeting meeting;
+    private ActiveMeetingRegistry registry;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        LocalDateTime start = LocalDateTime.now().minusMinutes(3);
+        meeting = Meeting.builder().id(7L).code("WR-7").title("War room").status("ACTIVE").startTime(start)
+                .currentParticipantCount(12).build();
+        List<Object[]> rows = List.of(new Object[] {7L, "WR-7", "War room", start, 12},
+                new Object[] {8L, "WR-8", "Other", start, 3});
+        MeetingRepository repository = BenchmarkSupport.stub(MeetingRepository.class, Map.of(
+                "findActiveSnapshots", args -> rows));
+        registry = new ActiveMeetingRegistry(repository, new SimpleMeterRegistry());
+        registry.rebuild();
+    }
+
+    @Benchmark
+    public Integer participantCountFromEntity() {
+        return meeting.getCurrentParticipantCount();
+    }
+
+    @Benchmark
+    public MeetingSnapshot snapshotFromEntity() {
+        return MeetingSnapshot.from(meeting);
+    }
+
+    @Benchmark
+    public Optional<MeetingSnapshot> registryByCode() {
+        return registry.byCode("WR-7");
+    }
+}
@@ -0,0 +1,106 @@
+package com.arsw.ids_ia.benchmark;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arsw.ids_ia.model.Alert;
+import com.arsw.ids_ia.ws.event.AlertBatchEvent;
+import com.arsw.ids_ia.ws.event.AlertEvent;
+import com.arsw.ids_ia.ws.event.AlertPayload;
+import com.arsw.ids_ia.ws.event.WsEventEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Compares the old nested-HashMap broadcast path with typed events encoded through a cached writer.
+ *
+ * <pre>
+ * mvn -B -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test.cp
+ * java -cp target/test-classes:target/classes:$(cat target/test.cp) org.openjdk.jmh.Main WsEventEncodingBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WsEventEncodingBenchmark {
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final WsEventEncoder encoder = new WsEventEncoder(mapper);
+    private List<Alert> alerts;
+
+    @Setup
+    public void setUp() {
+        alerts = new ArrayList<>(batchSize);
+        Instant now = Instant.now();
+        for (int i = 0; i < batchSize; i++) {
+            Alert alert = new Alert();
+            alert.setId((long) i);
+            alert.setPacketId("PKT-" + i);
+            alert.setIncidentId("INC-" + (i % 7));
+            alert.setSeverity("high");
+            alert.setScore(0.91);
+            alert.setModelVersion("v1");
+            alert.setTimestamp(now);
+            alerts.add(alert);
+        }
+    }
+
+    @Benchmark
+    public String legacyMap() throws Exception {
+        Map<String, Object> outer = new HashMap<>();
+        if (batchSize == 1) {
+            outer.put("type", "alert");
+            outer.put("alert", legacyPayload(alerts.get(0)));
+        } else {
+            outer.put("type", "alerts.batch");
+            outer.put("alerts", alerts.stream().map(WsEventEncodingBenchmark::legacyPayload).toList());
+        }
+        return mapper.writeValueAsString(outer);
+    }
+
+    @Benchmark
+    public String typedEvent() throws Exception {
+        if (batchSize == 1) {
+            return encoder.toJson(new AlertEvent(AlertPayload.from(alerts.get(0))));
+        }
+        return encoder.toJson(new AlertBatchEvent(alerts.stream().map(AlertPayload::from).toList()));
+    }
+
+    private static Map<String, Object> legacyPayload(Alert alert) {
+        Map<String, Object> alertMap = new HashMap<>();
+        alertMap.put("id", alert.getId());
+        alertMap.put("packetId", alert.getPacketId());
+        alertMap.put("incidentId", alert.getIncidentId());
+        alertMap.put("severity", alert.getSeverity());
+        alertMap.put("score", alert.getScore());
+        alertMap.put("modelVersion", alert.getModelVersion());
+        alertMap.put("model_version", alert.getModelVersion());
+        alertMap.put("timestamp", alert.getTimestamp());
+        return alertMap;
+    }
+}
@@ -0,0 +1,57 @@
+package com.arsw.ids_ia.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class PoolAwareConcurrencyFilterTest {
+
+    // one pooled connection, one permit per connection: a single API request at a time
+    private final PoolAwareConcurrencyFilter filter = new PoolAwareConcurrencyFilter(mock(DataSource.class),
+            new SimpleMeterRegistry(), 1, 1, Duration.ofMillis(50));
+
+    @Test
+    void streamingRequestHoldsItsPermitUntilTheAsyncWorkCompletes() throws Exception {
+        MockHttpServletRequest export = request("/api/alerts/export");
+        filter.doFilter(export, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                req.startAsync();
+            }
+        }));
+        assertThat(export.isAsyncStarted()).isTrue();
+
+        assertThat(status(request("/api/alerts"))).isEqualTo(503);
+
+        ((MockAsyncContext) export.getAsyncContext()).complete();
+
+        assertThat(status(request("/api/alerts"))).isEqualTo(200);
+        assertThat(status(request("/api/alerts"))).isEqualTo(200);
+    }
+
+    private int status(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAsyncSupported(true);
+        return request;
+    }
+}
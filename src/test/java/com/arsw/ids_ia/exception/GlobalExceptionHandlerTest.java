@@ -0,0 +1,37 @@
+package com.arsw.ids_ia.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.SQLException;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void lostAlertDuplicateRaceIsAConflict() {
+        DataIntegrityViolationException e = violation("uk_alerts_packet_incident_severity");
+
+        assertThat(handler.handleDataIntegrityViolationException(e).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void otherIntegrityViolationsKeepTheDefaultHandling() {
+        DataIntegrityViolationException notNull = violation(null);
+        DataIntegrityViolationException foreignKey = violation("fk_meeting_creator");
+
+        assertThatThrownBy(() -> handler.handleDataIntegrityViolationException(notNull)).isSameAs(notNull);
+        assertThatThrownBy(() -> handler.handleDataIntegrityViolationException(foreignKey)).isSameAs(foreignKey);
+    }
+
+    private static DataIntegrityViolationException violation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException("violation"), constraint));
+    }
+}
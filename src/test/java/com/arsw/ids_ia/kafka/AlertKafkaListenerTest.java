@@ -0,0 +1,189 @@
+package com.arsw.ids_ia.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.arsw.ids_ia.config.KafkaConsumerConfig;
+import com.arsw.ids_ia.model.Alert;
+import com.arsw.ids_ia.service.AlertService;
+
+@SpringBootTest(classes = {KafkaAutoConfiguration.class, KafkaConsumerConfig.class, AlertKafkaListener.class},
+        properties = {
+            "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+            "spring.kafka.consumer.group-id=" + AlertKafkaListenerTest.GROUP,
+            "app.kafka.alerts.topic=" + AlertKafkaListenerTest.TOPIC,
+            "app.kafka.alerts.retry-interval-ms=100",
+            "app.kafka.alerts.retry-max-interval-ms=400"
+        })
+@EmbeddedKafka(partitions = 1, topics = {AlertKafkaListenerTest.TOPIC, AlertKafkaListenerTest.TOPIC + ".DLT"})
+class AlertKafkaListenerTest {
+
+    static final String TOPIC = "ids-alerts-test";
+    static final String GROUP = "alert-listener-test";
+
+    private final TopicPartition partition = new TopicPartition(TOPIC, 0);
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @MockitoBean
+    private AlertService alertService;
+
+    @Test
+    void storesPolledAlertsDeadLettersPoisonAndCommitsOffsetsAfterWrite() throws Exception {
+        List<Alert> stored = new CopyOnWriteArrayList<>();
+        when(alertService.createBatch(anyList())).thenAnswer(inv -> {
+            List<Alert> batch = inv.getArgument(0);
+            stored.addAll(batch);
+            return batch;
+        });
+        long start = committedOffset();
+
+        send(alertJson("PKT-1", "INC-1", "critical"), alertJson("PKT-2", "INC-1", "high"), "not json",
+                alertJson("PKT-3", "INC-2", "low"));
+
+        verify(alertService, timeout(30_000).atLeastOnce()).createBatch(anyList());
+        awaitCommittedOffset(start + 4);
+
+        assertThat(stored).extracting(Alert::getPacketId).containsExactly("PKT-1", "PKT-2", "PKT-3");
+        assertThat(stored.get(0).getSeverity()).isEqualTo("critical");
+        assertThat(committedOffset()).isEqualTo(start + 4);
+        assertThat(deadLetteredValues("not json")).contains("not json");
+    }
+
+    @Test
+    void deadLettersAlertsTheDatabaseRejectsAndStoresTheRestOfTheBatch() throws Exception {
+        List<Alert> stored = new CopyOnWriteArrayList<>();
+        when(alertService.createBatch(anyList())).thenAnswer(inv -> {
+            List<Alert> batch = inv.getArgument(0);
+            if (batch.stream().anyMatch(alert -> alert.getPacketId().equals("PKT-BAD"))) {
+                throw new DataIntegrityViolationException("value too long for type character varying(255)");
+            }
+            stored.addAll(batch);
+            return batch;
+        });
+        long start = committedOffset();
+
+        send(alertJson("PKT-20", "INC-4", "high"), alertJson("PKT-BAD", "INC-4", "high"),
+                alertJson("PKT-21", "INC-4", "low"));
+
+        awaitCommittedOffset(start + 3);
+
+        assertThat(committedOffset()).isEqualTo(start + 3);
+        assertThat(stored).extracting(Alert::getPacketId).containsExactly("PKT-20", "PKT-21");
+        assertThat(deadLetteredValues("PKT-BAD")).anyMatch(value -> value.contains("PKT-BAD"));
+    }
+
+    @Test
+    void keepsRetryingWithoutCommittingWhileTheDatabaseIsDown() throws Exception {
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        AtomicInteger attempts = new AtomicInteger();
+        List<Alert> stored = new CopyOnWriteArrayList<>();
+        when(alertService.createBatch(anyList())).thenAnswer(inv -> {
+            attempts.incrementAndGet();
+            if (databaseDown.get()) {
+                throw new DataAccessResourceFailureException("database down");
+            }
+            List<Alert> batch = inv.getArgument(0);
+            stored.addAll(batch);
+            return batch;
+        });
+        long start = committedOffset();
+
+        send(alertJson("PKT-10", "INC-3", "high"), alertJson("PKT-11", "INC-3", "low"));
+
+        // more failed attempts than the old bounded policy would have allowed before giving up
+        Instant deadline = Instant.now().plusSeconds(30);
+        while (attempts.get() < 8 && Instant.now().isBefore(deadline)) {
+            Thread.sleep(100);
+        }
+        assertThat(attempts.get()).isGreaterThanOrEqualTo(8);
+        assertThat(committedOffset()).isEqualTo(start);
+
+        databaseDown.set(false);
+        awaitCommittedOffset(start + 2);
+        assertThat(stored).extracting(Alert::getPacketId).containsExactly("PKT-10", "PKT-11");
+    }
+
+    private void send(String... values) {
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(broker);
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(producerProps, new StringSerializer(), new StringSerializer())) {
+            for (String value : values) {
+                producer.send(new ProducerRecord<>(TOPIC, "INC", value));
+            }
+            producer.flush();
+        }
+    }
+
+    private long committedOffset() throws Exception {
+        try (AdminClient admin = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()))) {
+            OffsetAndMetadata committed = admin.listConsumerGroupOffsets(GROUP).partitionsToOffsetAndMetadata().get().get(partition);
+            return committed != null ? committed.offset() : 0L;
+        }
+    }
+
+    private void awaitCommittedOffset(long expected) throws Exception {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(30));
+        while (committedOffset() < expected && Instant.now().isBefore(deadline)) {
+            Thread.sleep(200);
+        }
+    }
+
+    /**
+     * Reads the dead-letter topic from the start until a record containing {@code expected} shows up.
+     */
+    private List<String> deadLetteredValues(String expected) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("alert-dlt-reader-" + expected.hashCode(), "false", broker);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new StringDeserializer()).createConsumer()) {
+            consumer.subscribe(List.of(TOPIC + ".DLT"));
+            List<String> values = new ArrayList<>();
+            Instant deadline = Instant.now().plusSeconds(10);
+            while (values.stream().noneMatch(value -> value.contains(expected)) && Instant.now().isBefore(deadline)) {
+                consumer.poll(Duration.ofMillis(500)).forEach(rec -> values.add(rec.value()));
+            }
+            return values;
+        }
+    }
+
+    private static String alertJson(String packetId, String incidentId, String severity) {
+        return "{\"packetId\":\"" + packetId + "\",\"incidentId\":\"" + incidentId + "\",\"severity\":\"" + severity
+                + "\",\"score\":0.93,\"modelVersion\":\"v1\",\"timestamp\":\"2025-01-01T00:00:00Z\"}";
+    }
+}
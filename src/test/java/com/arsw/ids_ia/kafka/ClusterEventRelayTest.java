@@ -0,0 +1,135 @@
+package com.arsw.ids_ia.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.arsw.ids_ia.config.KafkaClusterConfig;
+import com.arsw.ids_ia.ws.TrafficSocketHandler;
+import com.arsw.ids_ia.ws.event.AlertEvent;
+import com.arsw.ids_ia.ws.event.AlertPayload;
+import com.arsw.ids_ia.ws.event.WarRoomResolvedEvent;
+import com.arsw.ids_ia.ws.event.WsEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(classes = {KafkaAutoConfiguration.class, KafkaClusterConfig.class, KafkaClusterBroadcaster.class,
+        ClusterEventListener.class, ClusterEventRelayTest.Metrics.class},
+        properties = {
+            "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+            "app.ws.cluster.enabled=true",
+            "app.ws.cluster.node-id=" + ClusterEventRelayTest.NODE_A,
+            "app.ws.cluster.topic=" + ClusterEventRelayTest.TOPIC
+        })
+@EmbeddedKafka(partitions = 1, topics = ClusterEventRelayTest.TOPIC)
+class ClusterEventRelayTest {
+
+    static final String TOPIC = "ids-ws-events-test";
+    static final String NODE_A = "node-a";
+    static final String NODE_B = "node-b";
+
+    @Configuration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private KafkaClusterBroadcaster broadcaster;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @MockitoBean
+    private TrafficSocketHandler socketHandler;
+
+    @Test
+    void relaysRemoteEventsOnceAndSkipsOwn() throws Exception {
+        List<WsEvent> delivered = new CopyOnWriteArrayList<>();
+        doAnswer(inv -> delivered.add(inv.getArgument(0))).when(socketHandler).broadcastLocal(any());
+        ContainerTestUtils.waitForAssignment(registry.getListenerContainer("ws-cluster-relay"), 1);
+
+        AlertEvent local = new AlertEvent(alert(1L));
+        broadcaster.publish(local);
+
+        AlertEvent remote = new AlertEvent(alert(2L));
+        WarRoomResolvedEvent last = new WarRoomResolvedEvent(7L, "2025-01-01T00:10:00", 600L);
+        AlertEvent afterRestart = new AlertEvent(alert(3L));
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(broker);
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(producerProps, new StringSerializer(), new StringSerializer())) {
+            String envelope = envelope(NODE_B, "b-1", 1L, remote);
+            producer.send(new ProducerRecord<>(TOPIC, NODE_B, envelope));
+            producer.send(new ProducerRecord<>(TOPIC, NODE_B, envelope)); // redelivery
+            producer.send(new ProducerRecord<>(TOPIC, NODE_B, envelope(NODE_B, "b-1", 2L, last)));
+            // node-b restarted with the same node id: its event ids start over
+            producer.send(new ProducerRecord<>(TOPIC, NODE_B, envelope(NODE_B, "b-2", 1L, afterRestart)));
+            producer.flush();
+        }
+
+        Instant deadline = Instant.now().plusSeconds(30);
+        while (delivered.size() < 3 && Instant.now().isBefore(deadline)) {
+            Thread.sleep(100);
+        }
+        Thread.sleep(500);
+
+        assertThat(delivered).containsExactly(remote, last, afterRestart);
+        assertThat(publishedByNodeA()).hasSize(1);
+    }
+
+    private List<ConsumerRecord<String, String>> publishedByNodeA() {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("cluster-relay-test-reader", "false", broker);
+        props.put("auto.offset.reset", "earliest");
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new StringDeserializer()).createConsumer()) {
+            consumer.subscribe(List.of(TOPIC));
+            List<ConsumerRecord<String, String>> records = new CopyOnWriteArrayList<>();
+            KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10), 5).forEach(records::add);
+            return records.stream().filter(r -> NODE_A.equals(r.key())).toList();
+        }
+    }
+
+    private String envelope(String nodeId, String incarnation, long eventId, WsEvent event) throws Exception {
+        return mapper.writeValueAsString(new ClusterEnvelope(nodeId, incarnation, eventId, event.type(),
+                mapper.valueToTree(event)));
+    }
+
+    private static AlertPayload alert(long id) {
+        return new AlertPayload(id, "PKT-" + id, "INC-1", "critical", 0.97, "v1", "v1", Instant.parse("2025-01-01T00:00:00Z"));
+    }
+}
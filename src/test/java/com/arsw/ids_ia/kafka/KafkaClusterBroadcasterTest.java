@@ -0,0 +1,53 @@
+package com.arsw.ids_ia.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+
+import com.arsw.ids_ia.ws.event.WarRoomResolvedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class KafkaClusterBroadcasterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private KafkaClusterBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        broadcaster.destroy();
+    }
+
+    @Test
+    void publishingWhileTheBrokerIsUnreachableNeverBlocksTheCaller() {
+        KafkaProperties kafkaProperties = new KafkaProperties();
+        // nothing listens on port 1
+        kafkaProperties.setBootstrapServers(List.of("localhost:1"));
+        broadcaster = new KafkaClusterBroadcaster(kafkaProperties, ClusterNode.of("node-a"), meterRegistry,
+                "ids-ws-events-test", 4, Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            broadcaster.publish(new WarRoomResolvedEvent((long) i, "2025-01-01T00:00:00Z", 60L));
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // one max.block.ms wait per publish would take 10s
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(2));
+        // the queue holds 4 events and the publisher is stuck on the first one, so most are dropped
+        assertThat(meterRegistry.get("ids.ws.cluster.publish.dropped").counter().count()).isGreaterThanOrEqualTo(40);
+
+        Instant deadline = Instant.now().plusSeconds(10);
+        while (meterRegistry.get("ids.ws.cluster.publish.failed").counter().count() == 0 && Instant.now().isBefore(deadline)) {
+            Thread.onSpinWait();
+        }
+        assertThat(meterRegistry.get("ids.ws.cluster.publish.failed").counter().count()).isPositive();
+        assertThat(meterRegistry.get("ids.ws.cluster.published").counter().count()).isZero();
+    }
+}
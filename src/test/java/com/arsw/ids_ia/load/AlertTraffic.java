@@ -0,0 +1,93 @@
+package com.arsw.ids_ia.load;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Synthetic detector output shaped like production traffic: incidents follow a Zipf distribution
+ * (a few hot incidents produce most alerts), severities are skewed towards low, scores fall in a
+ * band per severity, and a fraction of alerts are replays of recent ones, as detectors resend on
+ * retries.
+ */
+final class AlertTraffic {
+
+    record Sample(String packetId, String incidentId, String severity, double score, String modelVersion,
+            boolean replay) {
+
+        String toJson() {
+            return "{\"packetId\":\"" + packetId + "\",\"incidentId\":\"" + incidentId + "\",\"severity\":\"" + severity
+                    + "\",\"score\":" + score + ",\"modelVersion\":\"" + modelVersion + "\"}";
+        }
+    }
+
+    private static final String[] SEVERITIES = {"critical", "high", "medium", "low"};
+    private static final double[] SEVERITY_WEIGHTS = {0.05, 0.15, 0.30, 0.50};
+    private static final double[][] SCORE_BANDS = {{0.90, 1.00}, {0.75, 0.90}, {0.50, 0.75}, {0.20, 0.50}};
+
+    // packet ids stay unique across runs against the same database, or earlier runs' rows would
+    // turn new alerts into duplicates
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final double[] incidentCdf;
+    private final double replayRatio;
+    private final AtomicLong packets = new AtomicLong();
+    private final AtomicReferenceArray<Sample> recent = new AtomicReferenceArray<>(1024);
+
+    AlertTraffic(int incidents, double zipfExponent, double replayRatio) {
+        this.replayRatio = replayRatio;
+        this.incidentCdf = new double[incidents];
+        double total = 0;
+        for (int i = 0; i < incidents; i++) {
+            total += 1.0 / Math.pow(i + 1, zipfExponent);
+            incidentCdf[i] = total;
+        }
+        for (int i = 0; i < incidents; i++) {
+            incidentCdf[i] /= total;
+        }
+    }
+
+    Sample next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long seq = packets.incrementAndGet();
+        if (seq > 1 && random.nextDouble() < replayRatio) {
+            Sample earlier = recent.get(random.nextInt((int) Math.min(seq - 1, recent.length())));
+            if (earlier != null) {
+                return new Sample(earlier.packetId(), earlier.incidentId(), earlier.severity(), earlier.score(),
+                        earlier.modelVersion(), true);
+            }
+        }
+
+        int severity = pick(SEVERITY_WEIGHTS, random.nextDouble());
+        double[] band = SCORE_BANDS[severity];
+        double score = Math.round((band[0] + random.nextDouble() * (band[1] - band[0])) * 1000) / 1000.0;
+        Sample sample = new Sample("PKT-" + runId + "-" + seq, "INC-" + (search(incidentCdf, random.nextDouble()) + 1),
+                SEVERITIES[severity], score, random.nextDouble() < 0.8 ? "v1" : "v2", false);
+        recent.set((int) (seq % recent.length()), sample);
+        return sample;
+    }
+
+    private static int pick(double[] weights, double u) {
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            if (u < sum) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static int search(double[] cdf, double u) {
+        int low = 0;
+        int high = cdf.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cdf[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,90 @@
+package com.arsw.ids_ia.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * One dashboard connected to /traffic/stream. For every alert it receives (single or batched
+ * frames) it records the time since the harness sent that alert's packet.
+ */
+final class DashboardClient implements WebSocket.Listener {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, Long> sentAt;
+    private final LatencyRecorder delivery;
+    private final LongAdder delivered;
+    private final LongAdder frames = new LongAdder();
+    private final StringBuilder partial = new StringBuilder();
+    private WebSocket socket;
+
+    DashboardClient(Map<String, Long> sentAt, LatencyRecorder delivery, LongAdder delivered) {
+        this.sentAt = sentAt;
+        this.delivery = delivery;
+        this.delivered = delivered;
+    }
+
+    void connect(HttpClient http, URI uri) throws Exception {
+        socket = http.newWebSocketBuilder().buildAsync(uri, this).get(10, TimeUnit.SECONDS);
+    }
+
+    long frames() {
+        return frames.sum();
+    }
+
+    void close() {
+        if (socket != null) {
+            socket.sendClose(WebSocket.NORMAL_CLOSURE, "done");
+        }
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        partial.append(data);
+        if (last) {
+            long receivedAt = System.nanoTime();
+            String frame = partial.toString();
+            partial.setLength(0);
+            frames.increment();
+            try {
+                record(MAPPER.readTree(frame), receivedAt);
+            } catch (Exception e) {
+                // not an alert frame
+            }
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void record(JsonNode frame, long receivedAt) {
+        switch (frame.path("type").asText()) {
+            case "alert" -> recordAlert(frame.path("alert"), receivedAt);
+            case "alerts.batch" -> frame.path("alerts").forEach(alert -> recordAlert(alert, receivedAt));
+            default -> {
+                // war-room and control frames carry no alert
+            }
+        }
+    }
+
+    private void recordAlert(JsonNode alert, long receivedAt) {
+        Long sent = sentAt.get(alert.path("packetId").asText());
+        if (sent != null) {
+            delivery.recordNanos(receivedAt - sent);
+            delivered.increment();
+        }
+    }
+}
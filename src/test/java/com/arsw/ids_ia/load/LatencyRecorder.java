@@ -0,0 +1,40 @@
+package com.arsw.ids_ia.load;
+
+import java.util.Arrays;
+
+/**
+ * Keeps every sample (in microseconds) and reports exact percentiles at the end of a run; a run's
+ * sample count is small enough that no histogram approximation is needed.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1 << 16];
+    private int count;
+
+    synchronized void recordNanos(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos / 1_000;
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    synchronized String summary() {
+        if (count == 0) {
+            return "no samples";
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return String.format("n=%d p50=%.1fms p90=%.1fms p95=%.1fms p99=%.1fms p99.9=%.1fms max=%.1fms", count,
+                at(sorted, 0.50), at(sorted, 0.90), at(sorted, 0.95), at(sorted, 0.99), at(sorted, 0.999),
+                sorted[count - 1] / 1000.0);
+    }
+
+    private static double at(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1000.0;
+    }
+}
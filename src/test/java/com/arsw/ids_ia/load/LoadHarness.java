@@ -0,0 +1,242 @@
+package com.arsw.ids_ia.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+
+import com.arsw.ids_ia.IdsIaApplication;
+
+/**
+ * End-to-end load run against one node. Boots the application on a random port against the
+ * database configured through DB_HOST / DB_PORT / DB_NAME / DB_USERNAME / DB_PASSWORD (the
+ * docker-compose Postgres by default), with Google replaced by {@link LocalJwtIssuer} and the Kafka
+ * listener stopped. It then keeps {@code load.clients} dashboards on /traffic/stream and posts
+ * alerts to /api/alerts at a fixed rate, open loop: latency is measured from each request's
+ * scheduled send time, so a stalled server shows up in the percentiles instead of slowing the
+ * driver down.
+ *
+ * <pre>
+ * docker compose up -d postgres
+ * mvn -B -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test.cp
+ * java -Dload.rate=500 -Dload.duration=60s -Dload.clients=50 \
+ *      -cp target/test-classes:target/classes:$(cat target/test.cp) com.arsw.ids_ia.load.LoadHarness
+ * </pre>
+ *
+ * Settings (system properties): {@code load.rate} alerts/s (200), {@code load.duration} (60s),
+ * {@code load.clients} dashboards (50), {@code load.incidents} (50), {@code load.zipf} incident skew
+ * (1.1), {@code load.replay-ratio} share of resent alerts (0.05), {@code load.drain} time allowed for
+ * late deliveries (5s), {@code load.app-log-level} (WARN), {@code load.join-storm} responders joining
+ * one war room at the same instant after the alert run, to measure join latency (0, off). Application
+ * settings can be overridden the
+ * same way, e.g. {@code -Dspring.threads.virtual.enabled=true} to compare thread modes (503s from the
+ * admission filter show up under Responses).
+ */
+public final class LoadHarness {
+
+    private static final String EMAIL = "load-harness@ids.test";
+    private static final String ADMIN_EMAIL = "load-harness-admin@ids.test";
+    private static final Pattern JSON_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern JSON_CODE = Pattern.compile("\"code\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern JSON_PARTICIPANTS = Pattern.compile("\"currentParticipantCount\"\\s*:\\s*(\\d+)");
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        double rate = Double.parseDouble(System.getProperty("load.rate", "200"));
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("load.duration", "60s"));
+        int clients = Integer.getInteger("load.clients", 50);
+        int joinStorm = Integer.getInteger("load.join-storm", 0);
+        Duration drain = DurationStyle.detectAndParse(System.getProperty("load.drain", "5s"));
+        AlertTraffic traffic = new AlertTraffic(Integer.getInteger("load.incidents", 50),
+                Double.parseDouble(System.getProperty("load.zipf", "1.1")),
+                Double.parseDouble(System.getProperty("load.replay-ratio", "0.05")));
+
+        LocalJwtIssuer issuer = LocalJwtIssuer.create();
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // command-line arguments, so they win over application.properties and the environment
+        List<String> appArgs = new ArrayList<>(List.of(args));
+        Map.of(
+                "server.port", "0",
+                "spring.security.oauth2.resourceserver.jwt.issuer-uri", LocalJwtIssuer.ISSUER,
+                "app.security.oauth2.client-id", LocalJwtIssuer.AUDIENCE,
+                "app.security.jwt.jwks-location", issuer.jwksLocation(),
+                "app.initial-admins", ADMIN_EMAIL,
+                "logging.level.org.apache.kafka", "ERROR",
+                "logging.level.com.arsw.ids_ia", System.getProperty("load.app-log-level", "WARN"))
+                .forEach((key, value) -> appArgs.add("--" + key + "=" + value));
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(IdsIaApplication.class)
+                .run(appArgs.toArray(String[]::new));
+        // alerts come in over HTTP only; the ingestion listener has its own container factory
+        app.getBean(KafkaListenerEndpointRegistry.class).stop();
+        int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+        String token = issuer.mint(EMAIL, duration.plus(drain).plusMinutes(10));
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        URI alertsUri = URI.create("http://localhost:" + port + "/api/alerts");
+        Map<String, Long> sentAt = new ConcurrentHashMap<>();
+        LatencyRecorder ingest = new LatencyRecorder();
+        LatencyRecorder delivery = new LatencyRecorder();
+        LongAdder delivered = new LongAdder();
+        LongAdder createdUnique = new LongAdder();
+        Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+        List<DashboardClient> dashboards = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            DashboardClient dashboard = new DashboardClient(sentAt, delivery, delivered);
+            dashboard.connect(http, URI.create("ws://localhost:" + port + "/traffic/stream"));
+            dashboards.add(dashboard);
+        }
+        System.out.printf("Driving %.0f alerts/s for %s with %d dashboards on port %d%n", rate, duration, clients, port);
+
+        // warm the authorities cache and the auto-created user so the first second is not an outlier
+        http.send(post(alertsUri, token, traffic.next().toJson()), HttpResponse.BodyHandlers.discarding());
+
+        long start = System.nanoTime();
+        long total = (long) (rate * duration.toSeconds());
+        List<CompletableFuture<?>> inFlight = new ArrayList<>((int) Math.min(total, Integer.MAX_VALUE));
+        for (long i = 0; i < total; i++) {
+            long scheduled = start + (long) (i * 1_000_000_000L / rate);
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            AlertTraffic.Sample sample = traffic.next();
+            if (!sample.replay()) {
+                sentAt.put(sample.packetId(), scheduled);
+            }
+            inFlight.add(http.sendAsync(post(alertsUri, token, sample.toJson()), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        ingest.recordNanos(System.nanoTime() - scheduled);
+                        String outcome = error != null ? error.getClass().getSimpleName() : String.valueOf(response.statusCode());
+                        outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+                        if (error == null && response.statusCode() == 201 && !sample.replay()) {
+                            createdUnique.increment();
+                        }
+                    }));
+        }
+        double sendSeconds = (System.nanoTime() - start) / 1e9;
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            System.out.println("Some requests were still pending 60s after the last send");
+        } catch (Exception e) {
+            // individual failures are already counted per outcome
+        }
+        double completeSeconds = (System.nanoTime() - start) / 1e9;
+        Thread.sleep(drain.toMillis());
+
+        long expectedDeliveries = createdUnique.sum() * clients;
+        System.out.println();
+        System.out.printf("Sent %d alerts in %.1fs (target %.0f/s, achieved %.0f/s, all responses after %.1fs)%n",
+                total, sendSeconds, rate, total / sendSeconds, completeSeconds);
+        Map<String, Long> byOutcome = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> byOutcome.put(outcome, count.sum()));
+        System.out.println("Responses:         " + byOutcome);
+        System.out.println("Ingest latency:    " + ingest.summary());
+        System.out.println("Delivery latency:  " + delivery.summary());
+        System.out.printf("Deliveries:        %d of %d expected (%d new alerts x %d dashboards), %d frames%n",
+                delivered.sum(), expectedDeliveries, createdUnique.sum(), clients,
+                dashboards.stream().mapToLong(DashboardClient::frames).sum());
+
+        if (joinStorm > 0) {
+            joinStorm(http, port, issuer, joinStorm);
+        }
+
+        dashboards.forEach(DashboardClient::close);
+        app.close();
+        System.exit(0);
+    }
+
+    /**
+     * Creates a war room and has {@code responders} users join it at the same instant. Each responder
+     * makes one authenticated request first, so user creation is not part of the measured join.
+     */
+    private static void joinStorm(HttpClient http, int port, LocalJwtIssuer issuer, int responders) throws Exception {
+        URI meetingsUri = URI.create("http://localhost:" + port + "/api/meetings");
+        String adminToken = issuer.mint(ADMIN_EMAIL, Duration.ofMinutes(10));
+        HttpResponse<String> created = http.send(post(meetingsUri, adminToken, "{\"title\":\"Join storm\"}"),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher id = JSON_ID.matcher(created.body());
+        Matcher code = JSON_CODE.matcher(created.body());
+        if (created.statusCode() != 200 || !id.find() || !code.find()) {
+            System.out.println("Join storm skipped: war room creation returned " + created.statusCode());
+            return;
+        }
+        URI meetingUri = URI.create(meetingsUri + "/" + id.group(1));
+        String joinJson = "{\"code\":\"" + code.group(1) + "\"}";
+
+        List<String> tokens = new ArrayList<>(responders);
+        for (int i = 0; i < responders; i++) {
+            String token = issuer.mint("responder-" + i + "@ids.test", Duration.ofMinutes(10));
+            http.send(get(meetingUri, token), HttpResponse.BodyHandlers.discarding());
+            tokens.add(token);
+        }
+
+        LatencyRecorder joins = new LatencyRecorder();
+        Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>(responders);
+        long start = System.nanoTime();
+        for (String token : tokens) {
+            inFlight.add(http.sendAsync(post(URI.create(meetingsUri + "/join"), token, joinJson),
+                    HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        joins.recordNanos(System.nanoTime() - start);
+                        String outcome = error != null ? error.getClass().getSimpleName() : String.valueOf(response.statusCode());
+                        outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+                    }));
+        }
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            // individual failures are already counted per outcome
+        }
+
+        Matcher participants = JSON_PARTICIPANTS.matcher(
+                http.send(get(meetingUri, adminToken), HttpResponse.BodyHandlers.ofString()).body());
+        Map<String, Long> byOutcome = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> byOutcome.put(outcome, count.sum()));
+        System.out.println();
+        System.out.printf("Join storm:        %d responders, participants now %s (expected %d)%n", responders,
+                participants.find() ? participants.group(1) : "?", responders + 1);
+        System.out.println("Join responses:    " + byOutcome);
+        System.out.println("Join latency:      " + joins.summary());
+    }
+
+    private static HttpRequest get(URI uri, String token) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest post(URI uri, String token, String json) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
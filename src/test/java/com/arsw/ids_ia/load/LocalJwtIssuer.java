@@ -0,0 +1,66 @@
+package com.arsw.ids_ia.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * Stands in for Google during load runs: an RS256 key whose public half is written to a JWKS file
+ * for the app's offline key mode ({@code app.security.jwt.jwks-location}), and ID tokens signed
+ * with it for the configured issuer and audience.
+ */
+final class LocalJwtIssuer {
+
+    static final String ISSUER = "http://localhost/load-harness";
+    static final String AUDIENCE = "load-harness";
+
+    private final RSAKey key;
+    private final Path jwksFile;
+
+    private LocalJwtIssuer(RSAKey key, Path jwksFile) {
+        this.key = key;
+        this.jwksFile = jwksFile;
+    }
+
+    static LocalJwtIssuer create() throws JOSEException, IOException {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("load-harness").generate();
+        Path jwks = Files.createTempFile("load-harness-jwks", ".json");
+        jwks.toFile().deleteOnExit();
+        Files.writeString(jwks, new JWKSet(key.toPublicJWK()).toString());
+        return new LocalJwtIssuer(key, jwks);
+    }
+
+    String jwksLocation() {
+        return jwksFile.toUri().toString();
+    }
+
+    String mint(String email, Duration validity) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .audience(List.of(AUDIENCE))
+                .subject(email)
+                .claim("email", email)
+                .claim("name", "Load harness")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(validity)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
@@ -0,0 +1,62 @@
+package com.arsw.ids_ia.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import com.arsw.ids_ia.dto.response.AlertWarRoomView;
+import com.arsw.ids_ia.model.Alert;
+import com.arsw.ids_ia.model.Meeting;
+
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:alerts;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AlertWarRoomViewQueryTest {
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Test
+    void joinsWarRoomAndSkipsAlertsOfEndedWarRooms() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Meeting active = meetingRepository.save(Meeting.builder().code("ACT-1").title("active").status("ACTIVE").startTime(start).build());
+        Meeting ended = meetingRepository.save(Meeting.builder().code("END-1").title("ended").status("ENDED").startTime(start)
+                .durationSeconds(600L).build());
+
+        Alert unlinked = alert("PKT-1", Instant.parse("2025-01-01T10:00:00Z"), null);
+        Alert linked = alert("PKT-2", Instant.parse("2025-01-01T10:01:00Z"), active.getId());
+        alert("PKT-3", Instant.parse("2025-01-01T10:02:00Z"), ended.getId());
+
+        List<AlertWarRoomView> views = alertRepository.findActiveWithWarRoom(Limit.of(10));
+
+        assertThat(views).extracting(AlertWarRoomView::id).containsExactly(linked.getId(), unlinked.getId());
+        assertThat(views.get(0).warRoomCode()).isEqualTo("ACT-1");
+        assertThat(views.get(0).warRoomStartTime()).isEqualTo(start);
+        assertThat(views.get(0).warRoomStatus()).isEqualTo("ACTIVE");
+        assertThat(views.get(1).warRoomCode()).isNull();
+        assertThat(alertRepository.findActiveWithWarRoom(Limit.of(1))).hasSize(1);
+    }
+
+    private Alert alert(String packetId, Instant timestamp, Long warRoomId) {
+        Alert alert = new Alert(packetId, "INC-1", "high", 0.9, "v1", timestamp);
+        alert.setWarRoomId(warRoomId);
+        return alertRepository.save(alert);
+    }
+}
@@ -0,0 +1,119 @@
+package com.arsw.ids_ia.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CachingJwtDecoderTest {
+
+    private final JwtDecoder delegate = mock(JwtDecoder.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void verifiedTokenIsServedFromTheCacheUntilMaxTtl() throws InterruptedException {
+        CachingJwtDecoder decoder = decoder(Duration.ofSeconds(1));
+        Jwt jwt = jwt("token-a", Instant.now().plus(Duration.ofHours(1)));
+        when(delegate.decode("token-a")).thenReturn(jwt);
+
+        assertThat(decoder.decode("token-a")).isSameAs(jwt);
+        assertThat(decoder.decode("token-a")).isSameAs(jwt);
+        verify(delegate, times(1)).decode("token-a");
+
+        Thread.sleep(1_200);
+        assertThat(decoder.decode("token-a")).isSameAs(jwt);
+        verify(delegate, times(2)).decode("token-a");
+        assertThat(lookups("hit")).isEqualTo(1);
+        assertThat(lookups("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void entryNeverOutlivesTheTokensExpiry() throws InterruptedException {
+        CachingJwtDecoder decoder = decoder(Duration.ofHours(1));
+        when(delegate.decode("token-a")).thenReturn(jwt("token-a", Instant.now().plusSeconds(1)));
+
+        decoder.decode("token-a");
+        decoder.decode("token-a");
+        verify(delegate, times(1)).decode("token-a");
+
+        Thread.sleep(1_200);
+        when(delegate.decode("token-a")).thenThrow(new BadJwtException("Jwt expired"));
+        assertThatThrownBy(() -> decoder.decode("token-a")).isInstanceOf(BadJwtException.class);
+        verify(delegate, times(2)).decode("token-a");
+    }
+
+    @Test
+    void rejectedTokenIsNeverCached() {
+        CachingJwtDecoder decoder = decoder(Duration.ofHours(1));
+        when(delegate.decode("forged")).thenThrow(new BadJwtException("Invalid signature"));
+
+        assertThatThrownBy(() -> decoder.decode("forged")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("forged")).isInstanceOf(BadJwtException.class);
+
+        verify(delegate, times(2)).decode("forged");
+        assertThat(meterRegistry.get("ids.security.jwt.cache.size").gauge().value()).isZero();
+    }
+
+    @Test
+    void tokensWithoutAFutureExpiryAreNotCached() {
+        CachingJwtDecoder decoder = decoder(Duration.ofHours(1));
+        when(delegate.decode("no-exp")).thenReturn(jwt("no-exp", null));
+        when(delegate.decode("expired")).thenReturn(jwt("expired", Instant.now().minusSeconds(1)));
+
+        decoder.decode("no-exp");
+        decoder.decode("no-exp");
+        decoder.decode("expired");
+        decoder.decode("expired");
+
+        verify(delegate, times(2)).decode("no-exp");
+        verify(delegate, times(2)).decode("expired");
+        assertThat(meterRegistry.get("ids.security.jwt.cache.size").gauge().value()).isZero();
+    }
+
+    @Test
+    void differentTokensAreCachedSeparately() {
+        CachingJwtDecoder decoder = decoder(Duration.ofHours(1));
+        Jwt a = jwt("token-a", Instant.now().plus(Duration.ofHours(1)));
+        Jwt b = jwt("token-b", Instant.now().plus(Duration.ofHours(1)));
+        when(delegate.decode("token-a")).thenReturn(a);
+        when(delegate.decode("token-b")).thenReturn(b);
+
+        decoder.decode("token-a");
+        decoder.decode("token-b");
+
+        assertThat(decoder.decode("token-a")).isSameAs(a);
+        assertThat(decoder.decode("token-b")).isSameAs(b);
+        assertThat(meterRegistry.get("ids.security.jwt.cache.size").gauge().value()).isEqualTo(2);
+    }
+
+    private CachingJwtDecoder decoder(Duration maxTtl) {
+        return new CachingJwtDecoder(delegate, 16, maxTtl, meterRegistry);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("ids.security.jwt.cache.lookups").tag("result", result).functionCounter().count();
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        Jwt.Builder builder = Jwt.withTokenValue(token)
+                .header("alg", "HS256")
+                .subject("user@ids.test")
+                .issuedAt(Instant.now().minusSeconds(5));
+        if (expiresAt != null) {
+            builder.expiresAt(expiresAt);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.arsw.ids_ia.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import com.arsw.ids_ia.model.User;
+import com.arsw.ids_ia.repository.UserRepository;
+import com.arsw.ids_ia.utils.enums.Role;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtUserAuthoritiesConverterTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final JwtUserAuthoritiesConverter converter =
+            new JwtUserAuthoritiesConverter(userRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
+    @Test
+    void concurrentFirstRequestsCreateTheUserOnce() throws Exception {
+        CountDownLatch saving = new CountDownLatch(1);
+        when(userRepository.findByEmail("new@ids.test")).thenReturn(Optional.empty());
+        when(userRepository.save(any(User.class))).thenAnswer(inv -> {
+            saving.await(5, TimeUnit.SECONDS);
+            return inv.getArgument(0);
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Collection<GrantedAuthority>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> converter.convert(jwt("New@ids.test"))));
+            }
+            Thread.sleep(200);
+            saving.countDown();
+            for (Future<Collection<GrantedAuthority>> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).extracting(GrantedAuthority::getAuthority)
+                        .containsExactly("ROLE_USER");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(userRepository, times(1)).save(any(User.class));
+    }
+
+    @Test
+    void roleChangeDropsCachedAuthorities() {
+        when(userRepository.findByEmail("admin@ids.test"))
+                .thenReturn(Optional.of(User.builder().email("admin@ids.test").role(Role.USER).build()));
+        assertThat(converter.convert(jwt("admin@ids.test"))).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+        converter.convert(jwt("admin@ids.test"));
+        verify(userRepository, times(1)).findByEmail("admin@ids.test");
+
+        when(userRepository.findByEmail("admin@ids.test"))
+                .thenReturn(Optional.of(User.builder().email("admin@ids.test").role(Role.ADMIN).build()));
+        converter.onUserRoleChanged(new UserRoleChangedEvent("Admin@ids.test"));
+
+        assertThat(converter.convert(jwt("admin@ids.test"))).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+    }
+
+    private static Jwt jwt(String email) {
+        return Jwt.withTokenValue("token").header("alg", "none").claim("email", email)
+                .issuedAt(Instant.now()).expiresAt(Instant.now().plusSeconds(300)).build();
+    }
+}
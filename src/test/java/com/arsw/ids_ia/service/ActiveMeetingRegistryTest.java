@@ -0,0 +1,113 @@
+package com.arsw.ids_ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.arsw.ids_ia.repository.MeetingRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ActiveMeetingRegistryTest {
+
+    private final MeetingRepository repository = mock(MeetingRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ActiveMeetingRegistry registry = new ActiveMeetingRegistry(repository, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void updateOutsideATransactionIsVisibleByIdAndCode() {
+        registry.update(snapshot(1L, "ABC123", "ACTIVE"));
+
+        assertThat(registry.byId(1L)).get().returns("ABC123", MeetingSnapshot::code);
+        assertThat(registry.byCode("ABC123")).get().returns(1L, MeetingSnapshot::id);
+        assertThat(registry.byId(2L)).isEmpty();
+        assertThat(registry.byCode("ZZZ999")).isEmpty();
+        assertThat(registry.byId(null)).isEmpty();
+        assertThat(registry.byCode(null)).isEmpty();
+
+        assertThat(lookups("hit")).isEqualTo(2);
+        assertThat(lookups("miss")).isEqualTo(4);
+        assertThat(meterRegistry.get("ids.meetings.registry.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void registrationInsideATransactionAppliesOnlyOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        registry.update(snapshot(1L, "ABC123", "ACTIVE"));
+
+        assertThat(registry.byId(1L)).isEmpty();
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        assertThat(registry.byId(1L)).isPresent();
+        assertThat(registry.byCode("ABC123")).isPresent();
+    }
+
+    @Test
+    void rolledBackRegistrationIsNeverApplied() {
+        TransactionSynchronizationManager.initSynchronization();
+        registry.update(snapshot(1L, "ABC123", "ACTIVE"));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(registry.byId(1L)).isEmpty();
+        assertThat(registry.active()).isEmpty();
+    }
+
+    @Test
+    void meetingThatIsNoLongerActiveIsUnregisteredOnCommit() {
+        registry.update(snapshot(1L, "ABC123", "ACTIVE"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        registry.update(snapshot(1L, "ABC123", "ENDED"));
+        assertThat(registry.byId(1L)).isPresent();
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        assertThat(registry.byId(1L)).isEmpty();
+        assertThat(registry.byCode("ABC123")).isEmpty();
+    }
+
+    @Test
+    void changedCodeReleasesThePreviousOne() {
+        registry.update(snapshot(1L, "OLD111", "ACTIVE"));
+        registry.update(snapshot(1L, "NEW222", "ACTIVE"));
+
+        assertThat(registry.byCode("OLD111")).isEmpty();
+        assertThat(registry.byCode("NEW222")).get().returns(1L, MeetingSnapshot::id);
+    }
+
+    @Test
+    void rebuildReplacesTheContentsAndAFailedRebuildKeepsThem() {
+        registry.update(snapshot(1L, "GONE11", "ACTIVE"));
+        when(repository.findActiveSnapshots()).thenReturn(List.of(snapshot(2L, "KEPT22", "ACTIVE")));
+
+        registry.rebuild();
+        assertThat(registry.byCode("GONE11")).isEmpty();
+        assertThat(registry.active()).extracting(MeetingSnapshot::id).containsExactly(2L);
+
+        when(repository.findActiveSnapshots()).thenThrow(new IllegalStateException("database down"));
+        registry.rebuild();
+        assertThat(registry.byCode("KEPT22")).isPresent();
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("ids.meetings.registry.lookups").tag("result", result).counter().count();
+    }
+
+    private static MeetingSnapshot snapshot(Long id, String code, String status) {
+        return new MeetingSnapshot(id, code, "War room " + id, status, LocalDateTime.of(2025, 1, 1, 0, 0), null, 1);
+    }
+}
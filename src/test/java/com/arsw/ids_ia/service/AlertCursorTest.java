@@ -0,0 +1,47 @@
+package com.arsw.ids_ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.arsw.ids_ia.model.Alert;
+
+class AlertCursorTest {
+
+    @Test
+    void roundTripsThePositionOfAnAlert() {
+        Alert alert = new Alert("PKT-1", "INC-1", "high", 0.9, "v1", Instant.parse("2025-01-01T10:15:30.123456Z"));
+        alert.setId(42L);
+
+        AlertCursor decoded = AlertCursor.decode(AlertCursor.after(alert).encode());
+
+        assertThat(decoded).isEqualTo(new AlertCursor(alert.getTimestamp(), 42L));
+    }
+
+    @Test
+    void rejectsTokensThatAreNotCursors() {
+        assertThatThrownBy(() -> AlertCursor.decode("not a cursor")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> AlertCursor.decode(token("null|42"))).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> AlertCursor.decode(token("2025-01-01T00:00:00Z"))).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void alertWithoutTimestampHasNoPosition() {
+        Alert legacy = new Alert("PKT-2", "INC-1", "low", 0.1, "v1", null);
+        legacy.setId(7L);
+
+        assertThatThrownBy(() -> AlertCursor.after(legacy)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
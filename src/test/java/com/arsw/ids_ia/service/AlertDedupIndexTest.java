@@ -0,0 +1,73 @@
+package com.arsw.ids_ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import com.arsw.ids_ia.model.Alert;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AlertDedupIndexTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AlertDedupIndex index = new AlertDedupIndex(2, Duration.ofMinutes(10), meterRegistry);
+
+    @Test
+    void findsRecordedAlertsByDuplicateIdentity() {
+        Alert stored = alert("PKT-1", "INC-1", "high");
+        index.record(AlertDedupIndex.Key.of(stored), stored);
+
+        assertThat(index.find(AlertDedupIndex.Key.of(alert("PKT-1", "INC-1", "high")))).isSameAs(stored);
+        assertThat(index.find(AlertDedupIndex.Key.of(alert("PKT-1", "INC-1", "low")))).isNull();
+        assertThat(index.find(AlertDedupIndex.Key.of(alert("PKT-1", "INC-2", "high")))).isNull();
+    }
+
+    @Test
+    void alertsMissingAnIdentityComponentHaveNoKey() {
+        assertThat(AlertDedupIndex.Key.of(alert(null, "INC-1", "high"))).isNull();
+        assertThat(AlertDedupIndex.Key.of(alert("PKT-1", null, "high"))).isNull();
+        assertThat(AlertDedupIndex.Key.of(alert("PKT-1", "INC-1", null))).isNull();
+    }
+
+    @Test
+    void forgottenAlertCanBeRecordedAgainAndOutlivesOlderEntries() {
+        Alert first = alert("PKT-1", "INC-1", "high");
+        AlertDedupIndex.Key key = AlertDedupIndex.Key.of(first);
+        index.record(key, first);
+        index.forget(key);
+        assertThat(index.find(key)).isNull();
+
+        Alert older = alert("PKT-2", "INC-1", "high");
+        index.record(AlertDedupIndex.Key.of(older), older);
+        Alert again = alert("PKT-1", "INC-1", "high");
+        index.record(key, again);
+        Alert newest = alert("PKT-3", "INC-1", "high");
+        index.record(AlertDedupIndex.Key.of(newest), newest);
+
+        assertThat(index.find(key)).isSameAs(again);
+        assertThat(index.find(AlertDedupIndex.Key.of(older))).isNull();
+    }
+
+    @Test
+    void publishesLookupsAndHitRatio() {
+        Alert stored = alert("PKT-1", "INC-1", "high");
+        index.record(AlertDedupIndex.Key.of(stored), stored);
+
+        index.find(AlertDedupIndex.Key.of(stored));
+        index.find(AlertDedupIndex.Key.of(alert("PKT-9", "INC-1", "high")));
+        index.find(AlertDedupIndex.Key.of(stored));
+
+        assertThat(meterRegistry.get("ids.alerts.dedup.lookups").tag("result", "hit").functionCounter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("ids.alerts.dedup.lookups").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ids.alerts.dedup.size").gauge().value()).isEqualTo(1);
+        assertThat(index.hitRatio()).isEqualTo(2.0 / 3);
+    }
+
+    private static Alert alert(String packetId, String incidentId, String severity) {
+        return new Alert(packetId, incidentId, severity, 0.9, "v1", Instant.parse("2025-01-01T00:00:00Z"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.arsw.ids_ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.arsw.ids_ia.model.Alert;
+import com.arsw.ids_ia.repository.AlertRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import jakarta.persistence.EntityManager;
+
+class AlertExportServiceTest {
+
+    private final AlertRepository repository = mock(AlertRepository.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final AlertExportService service = new AlertExportService(repository, entityManager, mapper);
+
+    @Test
+    void csvQuotesValuesWithCommasQuotesAndLineBreaks() throws Exception {
+        Alert plain = alert(1L, "PKT-1", "INC-1", "high", 7L);
+        Alert comma = alert(2L, "PKT,2", "INC-1", "low", null);
+        Alert quote = alert(3L, "PKT-3", "INC \"x\"", "medium", null);
+        Alert lineBreaks = alert(4L, "PKT-4", "INC-1", "crit\nical", null);
+        lineBreaks.setModelVersion("v1\r");
+        Alert missing = new Alert(null, null, null, null, null, null);
+        missing.setId(5L);
+        when(repository.streamAllByOrderByTimestampAscIdAsc())
+                .thenReturn(Stream.of(plain, comma, quote, lineBreaks, missing));
+
+        String csv = export(AlertExportService.Format.CSV);
+
+        assertThat(csv).isEqualTo("""
+                id,packetId,incidentId,severity,score,modelVersion,timestamp,warRoomId
+                1,PKT-1,INC-1,high,0.9,v1,2025-01-01T00:00:00Z,7
+                2,"PKT,2",INC-1,low,0.9,v1,2025-01-01T00:00:00Z,
+                3,PKT-3,"INC ""x\"\"\",medium,0.9,v1,2025-01-01T00:00:00Z,
+                4,PKT-4,INC-1,"crit
+                ical",0.9,"v1\r",2025-01-01T00:00:00Z,
+                5,,,,,,,
+                """);
+    }
+
+    @Test
+    void csvOfAnEmptyHistoryIsJustTheHeader() throws Exception {
+        when(repository.streamAllByOrderByTimestampAscIdAsc()).thenReturn(Stream.empty());
+
+        assertThat(export(AlertExportService.Format.CSV))
+                .isEqualTo("id,packetId,incidentId,severity,score,modelVersion,timestamp,warRoomId\n");
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLineAndDetachesEachRowBeforeReadingTheNext() throws Exception {
+        List<String> events = new ArrayList<>();
+        AtomicBoolean closed = new AtomicBoolean();
+        doAnswer(inv -> events.add("detach " + inv.<Alert>getArgument(0).getId())).when(entityManager).detach(any());
+        when(repository.streamAllByOrderByTimestampAscIdAsc()).thenReturn(
+                Stream.of(alert(1L, "PKT-1", "INC-1", "high", null), alert(2L, "PKT,2", "INC-1", "low\n", 9L),
+                        alert(3L, "PKT-3", "INC-2", "low", null))
+                        .peek(alert -> events.add("read " + alert.getId()))
+                        .onClose(() -> closed.set(true)));
+
+        String ndjson = export(AlertExportService.Format.NDJSON);
+
+        assertThat(events).containsExactly("read 1", "detach 1", "read 2", "detach 2", "read 3", "detach 3");
+        assertThat(closed).isTrue();
+        assertThat(ndjson).endsWith("\n");
+        String[] lines = ndjson.split("\n");
+        assertThat(lines).hasSize(3);
+        JsonNode second = mapper.readTree(lines[1]);
+        assertThat(second.get("id").asLong()).isEqualTo(2);
+        assertThat(second.get("packetId").asText()).isEqualTo("PKT,2");
+        assertThat(second.get("severity").asText()).isEqualTo("low\n");
+        assertThat(second.get("warRoomId").asLong()).isEqualTo(9);
+        assertThat(second.get("timestamp").asText()).isEqualTo("2025-01-01T00:00:00Z");
+    }
+
+    @Test
+    void ndjsonOfAnEmptyHistoryIsEmpty() throws Exception {
+        when(repository.streamAllByOrderByTimestampAscIdAsc()).thenReturn(Stream.empty());
+
+        assertThat(export(AlertExportService.Format.NDJSON)).isEmpty();
+    }
+
+    @Test
+    void formatNamesAreCaseInsensitive() {
+        assertThat(AlertExportService.Format.from(" csv ")).isEqualTo(AlertExportService.Format.CSV);
+        assertThat(AlertExportService.Format.from("NdJson")).isEqualTo(AlertExportService.Format.NDJSON);
+        assertThatThrownBy(() -> AlertExportService.Format.from("xml"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unsupported export format: xml");
+    }
+
+    private String export(AlertExportService.Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Alert alert(Long id, String packetId, String incidentId, String severity, Long warRoomId) {
+        Alert alert = new Alert(packetId, incidentId, severity, 0.9, "v1", Instant.parse("2025-01-01T00:00:00Z"));
+        alert.setId(id);
+        alert.setWarRoomId(warRoomId);
+        return alert;
+    }
+}
@@ -0,0 +1,224 @@
+package com.arsw.ids_ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.arsw.ids_ia.model.Alert;
+import com.arsw.ids_ia.repository.AlertRepository;
+import com.arsw.ids_ia.ws.AlertBroadcastCoalescer;
+import com.arsw.ids_ia.ws.event.AlertPayload;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AlertServiceTest {
+
+    private final AlertRepository repository = mock(AlertRepository.class);
+    private final AlertBroadcastCoalescer broadcaster = mock(AlertBroadcastCoalescer.class);
+    private final AlertDedupIndex dedupIndex = new AlertDedupIndex(1000, Duration.ofMinutes(10), new SimpleMeterRegistry());
+    private final AlertSeverityCounters severityCounters = new AlertSeverityCounters(repository);
+    private final AtomicLong ids = new AtomicLong(100);
+
+    // keys a concurrent writer stored after the duplicate lookup; the insert skips them
+    private final Map<AlertDedupIndex.Key, Alert> committedByOthers = new HashMap<>();
+    private final List<List<String>> insertedPacketIds = new ArrayList<>();
+
+    private AlertService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AlertService(repository, broadcaster, dedupIndex, severityCounters, 5000);
+        when(repository.insertAllIfAbsent(any(), any(), any(), any(), any(), any(), any())).thenAnswer(inv -> {
+            String[] packetIds = inv.getArgument(0);
+            String[] incidentIds = inv.getArgument(1);
+            String[] severities = inv.getArgument(2);
+            insertedPacketIds.add(List.of(packetIds));
+            List<AlertRepository.InsertedAlert> rows = new ArrayList<>();
+            for (int i = 0; i < packetIds.length; i++) {
+                AlertDedupIndex.Key key = new AlertDedupIndex.Key(packetIds[i], incidentIds[i], severities[i]);
+                if (!committedByOthers.containsKey(key)) {
+                    rows.add(inserted(ids.incrementAndGet(), key));
+                }
+            }
+            return rows;
+        });
+    }
+
+    @Test
+    void batchDuplicatesAreResolvedWithinTheBatchAgainstStoredRowsAndAgainstTheIndex() {
+        Alert stored = alert("PKT-2", "high");
+        stored.setId(7L);
+        when(repository.findByPacketIdIn(anyCollection())).thenReturn(List.of(stored));
+        Alert indexed = alert("PKT-3", "low");
+        indexed.setId(8L);
+        dedupIndex.record(AlertDedupIndex.Key.of(indexed), indexed);
+
+        Alert first = alert("PKT-1", "critical");
+        List<Alert> result = service.createBatch(List.of(
+                first, alert("PKT-1", "critical"), alert("PKT-2", "high"), alert("PKT-3", "low"), alert("PKT-1", "low")));
+
+        assertThat(result.get(0).getId()).isNotNull();
+        assertThat(result.get(1)).isSameAs(first);
+        assertThat(result).extracting(Alert::getId).containsExactly(
+                first.getId(), first.getId(), 7L, 8L, result.get(4).getId());
+        assertThat(result.get(4).getId()).isNotNull().isNotEqualTo(first.getId());
+
+        assertThat(insertedPacketIds).hasSize(1);
+        assertThat(insertedPacketIds.get(0)).containsExactlyInAnyOrder("PKT-1", "PKT-1");
+        verify(repository, never()).saveAll(anyList());
+
+        // keys answered by the index never reach the lookup query
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> looked = ArgumentCaptor.forClass(Collection.class);
+        verify(repository).findByPacketIdIn(looked.capture());
+        assertThat(looked.getValue()).containsExactlyInAnyOrder("PKT-1", "PKT-2");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AlertPayload>> announced = ArgumentCaptor.forClass(List.class);
+        verify(broadcaster).submitAll(announced.capture());
+        assertThat(announced.getValue()).extracting(AlertPayload::id).containsExactly(first.getId(), result.get(4).getId());
+    }
+
+    @Test
+    void batchThatRacesAnotherWriterAnswersWithTheStoredRowInsteadOfFailing() {
+        Alert winner = alert("PKT-7", "high");
+        winner.setId(70L);
+        // the duplicate lookup sees nothing; the other writer commits before our insert runs
+        when(repository.findByPacketIdIn(anyCollection())).thenReturn(List.of()).thenReturn(List.of(winner));
+        committedByOthers.put(AlertDedupIndex.Key.of(winner), winner);
+
+        Alert fresh = alert("PKT-8", "high");
+        List<Alert> result = service.createBatch(List.of(alert("PKT-7", "high"), fresh, alert("PKT-7", "high")));
+
+        assertThat(result).containsExactly(winner, fresh, winner);
+        assertThat(fresh.getId()).isNotNull();
+        // only the losing key is read back
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> looked = ArgumentCaptor.forClass(Collection.class);
+        verify(repository, times(2)).findByPacketIdIn(looked.capture());
+        assertThat(looked.getAllValues().get(1)).containsExactly("PKT-7");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AlertPayload>> announced = ArgumentCaptor.forClass(List.class);
+        verify(broadcaster).submitAll(announced.capture());
+        assertThat(announced.getValue()).extracting(AlertPayload::packetId).containsExactly("PKT-8");
+        assertThat(severityCounters.count("high")).isEqualTo(1);
+    }
+
+    @Test
+    void batchAlertsWithoutFullIdentityAreInsertedPlainly() {
+        when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Alert> batch = inv.getArgument(0);
+            batch.forEach(alert -> alert.setId(ids.incrementAndGet()));
+            return batch;
+        });
+        Alert anonymous = new Alert(null, "INC-1", "low", 0.1, "v1", null);
+
+        List<Alert> result = service.createBatch(List.of(anonymous));
+
+        assertThat(result).containsExactly(anonymous);
+        assertThat(anonymous.getId()).isNotNull();
+        assertThat(anonymous.getTimestamp()).isNotNull();
+        assertThat(insertedPacketIds).isEmpty();
+    }
+
+    @Test
+    void batchOfKnownDuplicatesInsertsAndAnnouncesNothing() {
+        Alert stored = alert("PKT-9", "medium");
+        stored.setId(9L);
+        when(repository.findByPacketIdIn(anyCollection())).thenReturn(List.of(stored));
+
+        List<Alert> result = service.createBatch(List.of(alert("PKT-9", "medium"), alert("PKT-9", "medium")));
+
+        assertThat(result).containsExactly(stored, stored);
+        assertThat(insertedPacketIds).isEmpty();
+        verify(broadcaster, never()).submitAll(anyList());
+    }
+
+    @Test
+    void batchIsAnnouncedOnlyOnceTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.createBatch(List.of(alert("PKT-5", "high")));
+            verify(broadcaster, never()).submitAll(anyList());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(broadcaster).submitAll(anyList());
+    }
+
+    @Test
+    void rolledBackBatchLeavesNoTraceSoItsRetryIsStoredAgain() {
+        Alert alert = alert("PKT-6", "critical");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.createBatch(List.of(alert));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(dedupIndex.find(AlertDedupIndex.Key.of(alert))).isNull();
+        assertThat(severityCounters.total()).isZero();
+        verify(broadcaster, never()).submitAll(anyList());
+
+        Alert retried = alert("PKT-6", "critical");
+        List<Alert> result = service.createBatch(List.of(retried));
+
+        assertThat(result).containsExactly(retried);
+        assertThat(insertedPacketIds).containsExactly(List.of("PKT-6"), List.of("PKT-6"));
+        assertThat(dedupIndex.find(AlertDedupIndex.Key.of(retried))).isSameAs(retried);
+        assertThat(severityCounters.count("critical")).isEqualTo(1);
+    }
+
+    private static AlertRepository.InsertedAlert inserted(long id, AlertDedupIndex.Key key) {
+        return new AlertRepository.InsertedAlert() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getPacketId() {
+                return key.packetId();
+            }
+
+            @Override
+            public String getIncidentId() {
+                return key.incidentId();
+            }
+
+            @Override
+            public String getSeverity() {
+                return key.severity();
+            }
+        };
+    }
+
+    private static Alert alert(String packetId, String severity) {
+        return new Alert(packetId, "INC-1", severity, 0.9, "v1", Instant.parse("2025-01-01T00:00:00Z"));
+    }
+}
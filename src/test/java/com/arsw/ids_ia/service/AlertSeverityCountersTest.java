@@ -0,0 +1,75 @@
+package com.arsw.ids_ia.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.arsw.ids_ia.repository.AlertRepository;
+
+class AlertSeverityCountersTest {
+
+    private final AlertRepository repository = mock(AlertRepository.class);
+    private final AlertSeverityCounters counters = new AlertSeverityCounters(repository);
+
+    @Test
+    void rebuildLoadsActiveCountsAndDropsSeveritiesThatAreGone() {
+        counters.increment("medium");
+        when(repository.countActiveBySeverity()).thenReturn(rows(new Object[] {"high", 3L}, new Object[] {"low", 2L}));
+
+        counters.rebuild();
+
+        assertThat(counters.count("high")).isEqualTo(3);
+        assertThat(counters.count("low")).isEqualTo(2);
+        assertThat(counters.count("medium")).isZero();
+        assertThat(counters.total()).isEqualTo(5);
+    }
+
+    @Test
+    void failedRebuildKeepsTheLiveCounts() {
+        counters.increment("high");
+        when(repository.countActiveBySeverity()).thenThrow(new IllegalStateException("database down"));
+
+        counters.rebuild();
+
+        assertThat(counters.count("high")).isEqualTo(1);
+        assertThat(counters.total()).isEqualTo(1);
+    }
+
+    @Test
+    void incrementAndDecrementIgnoreSeverityCase() {
+        counters.increment("HIGH");
+        counters.increment("High");
+        counters.decrement("high");
+
+        assertThat(counters.count("high")).isEqualTo(1);
+        assertThat(counters.count("HIGH")).isEqualTo(1);
+        assertThat(counters.total()).isEqualTo(1);
+    }
+
+    @Test
+    void alertsWithoutSeverityCountTowardsTheTotalOnly() {
+        counters.increment(null);
+
+        assertThat(counters.count(null)).isEqualTo(1);
+        assertThat(counters.count("high")).isZero();
+        assertThat(counters.total()).isEqualTo(1);
+    }
+
+    @Test
+    void addAppliesGroupedCountsWithTheGivenSign() {
+        counters.add(rows(new Object[] {"critical", 4L}, new Object[] {"low", 1L}), 1);
+        counters.add(rows(new Object[] {"critical", 3L}), -1);
+
+        assertThat(counters.count("critical")).isEqualTo(1);
+        assertThat(counters.count("low")).isEqualTo(1);
+        assertThat(counters.total()).isEqualTo(2);
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+}
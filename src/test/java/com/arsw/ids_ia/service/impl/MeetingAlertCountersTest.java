@@ -0,0 +1,198 @@
+package com.arsw.ids_ia.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.arsw.ids_ia.dto.request.CreateMeetingRequest;
+import com.arsw.ids_ia.model.Alert;
+import com.arsw.ids_ia.model.Meeting;
+import com.arsw.ids_ia.model.User;
+import com.arsw.ids_ia.repository.AlertRepository;
+import com.arsw.ids_ia.repository.MeetingRepository;
+import com.arsw.ids_ia.repository.UserRepository;
+import com.arsw.ids_ia.service.ActiveMeetingRegistry;
+import com.arsw.ids_ia.service.AlertSeverityCounters;
+import com.arsw.ids_ia.service.MeetingSnapshot;
+import com.arsw.ids_ia.utils.enums.Role;
+import com.arsw.ids_ia.ws.TrafficSocketHandler;
+import com.arsw.ids_ia.ws.event.WarRoomCreatedEvent;
+import com.arsw.ids_ia.ws.event.WsEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:meeting-alerts;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MeetingServiceImpl.class, ActiveMeetingRegistry.class, AlertSeverityCounters.class,
+        MeetingAlertCountersTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MeetingAlertCountersTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private MeetingServiceImpl meetingService;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AlertSeverityCounters severityCounters;
+
+    @Autowired
+    private ActiveMeetingRegistry activeMeetings;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private TrafficSocketHandler socketHandler;
+
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM alerts");
+        jdbcTemplate.update("DELETE FROM meeting_participants");
+        jdbcTemplate.update("DELETE FROM meeting");
+        jdbcTemplate.update("DELETE FROM _user");
+        admin = userRepository.save(User.builder().name("admin").email("admin@ids.test").role(Role.ADMIN).build());
+    }
+
+    @Test
+    void resolvingAWarRoomTakesItsAlertsOutOfTheCountersOnCommit() {
+        Meeting meeting = createWarRoom("INC-1");
+        saveAlert("PKT-3", "INC-2", "low", null);
+        severityCounters.rebuild();
+        assertThat(severityCounters.count("high")).isEqualTo(2);
+
+        meetingService.markIncidentAsResolved(meeting.getId(), admin.getEmail());
+
+        assertThat(severityCounters.count("high")).isZero();
+        assertThat(severityCounters.count("low")).isEqualTo(1);
+        assertThat(severityCounters.total()).isEqualTo(1);
+    }
+
+    @Test
+    void rolledBackResolveLeavesTheCountersUntouched() {
+        Meeting meeting = createWarRoom("INC-1");
+        severityCounters.rebuild();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            meetingService.markIncidentAsResolved(meeting.getId(), admin.getEmail());
+            status.setRollbackOnly();
+        });
+
+        assertThat(severityCounters.count("high")).isEqualTo(2);
+        assertThat(meetingRepository.findById(meeting.getId())).get().returns("ACTIVE", Meeting::getStatus);
+        assertThat(activeMeetings.byId(meeting.getId())).isPresent();
+    }
+
+    @Test
+    void relinkingAlertsOfAResolvedWarRoomCountsThemAgainOnlyOnCommit() {
+        Meeting first = createWarRoom("INC-1");
+        meetingService.markIncidentAsResolved(first.getId(), admin.getEmail());
+        severityCounters.rebuild();
+        assertThat(severityCounters.total()).isZero();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            meetingService.createMeeting(CreateMeetingRequest.builder().title("retry").incidentId("INC-1").build(),
+                    admin.getEmail());
+            status.setRollbackOnly();
+        });
+        assertThat(severityCounters.total()).isZero();
+
+        meetingService.createMeeting(CreateMeetingRequest.builder().title("reopened").incidentId("INC-1").build(),
+                admin.getEmail());
+        assertThat(severityCounters.count("high")).isEqualTo(2);
+    }
+
+    @Test
+    void warRoomForAnIncidentLinksAllItsAlertsInOneStatementAndPublishesTheCount() {
+        Meeting resolved = createWarRoom("INC-1");
+        meetingService.markIncidentAsResolved(resolved.getId(), admin.getEmail());
+        saveAlert("PKT-3", "INC-1", "low", null);
+        saveAlert("PKT-4", "INC-2", "medium", null);
+        severityCounters.rebuild();
+        assertThat(severityCounters.total()).isEqualTo(2);
+
+        Meeting warRoom = meetingService.createMeeting(
+                CreateMeetingRequest.builder().title("INC-1 again").incidentId("INC-1").build(), admin.getEmail());
+
+        assertThat(alertRepository.findAll()).extracting(Alert::getPacketId, Alert::getWarRoomId)
+                .containsExactlyInAnyOrder(
+                        tuple("PKT-1", warRoom.getId()), tuple("PKT-2", warRoom.getId()),
+                        tuple("PKT-3", warRoom.getId()), tuple("PKT-4", null));
+        ArgumentCaptor<WsEvent> events = ArgumentCaptor.forClass(WsEvent.class);
+        verify(socketHandler, atLeastOnce()).broadcastEvent(events.capture());
+        assertThat(events.getAllValues()).last().isInstanceOfSatisfying(WarRoomCreatedEvent.class, created -> {
+            assertThat(created.incidentId()).isEqualTo("INC-1");
+            assertThat(created.linkedAlerts()).isEqualTo(3);
+            assertThat(created.warRoom().id()).isEqualTo(warRoom.getId());
+        });
+        // the two alerts of the ENDED war room count again; the unlinked one was already counted
+        assertThat(severityCounters.count("high")).isEqualTo(2);
+        assertThat(severityCounters.count("low")).isEqualTo(1);
+        assertThat(severityCounters.count("medium")).isEqualTo(1);
+        assertThat(severityCounters.total()).isEqualTo(4);
+        assertThat(activeMeetings.byId(warRoom.getId())).isPresent();
+        assertThat(activeMeetings.byCode(warRoom.getCode())).get().returns(warRoom.getId(), MeetingSnapshot::id);
+        assertThat(activeMeetings.byId(resolved.getId())).isEmpty();
+    }
+
+    private Meeting createWarRoom(String incidentId) {
+        Meeting meeting = meetingService.createMeeting(
+                CreateMeetingRequest.builder().title("War room " + incidentId).build(), admin.getEmail());
+        saveAlert("PKT-1", incidentId, "high", meeting.getId());
+        saveAlert("PKT-2", incidentId, "HIGH", meeting.getId());
+        return meeting;
+    }
+
+    private void saveAlert(String packetId, String incidentId, String severity, Long warRoomId) {
+        Alert alert = new Alert(packetId, incidentId, severity, 0.9, "v1", Instant.parse("2025-01-01T00:00:00Z"));
+        alert.setWarRoomId(warRoomId);
+        alertRepository.save(alert);
+    }
+}
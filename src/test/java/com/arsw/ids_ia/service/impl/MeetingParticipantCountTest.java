@@ -0,0 +1,174 @@
+package com.arsw.ids_ia.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.arsw.ids_ia.dto.request.CreateMeetingRequest;
+import com.arsw.ids_ia.dto.request.JoinMeetingRequest;
+import com.arsw.ids_ia.model.Meeting;
+import com.arsw.ids_ia.model.User;
+import com.arsw.ids_ia.repository.MeetingRepository;
+import com.arsw.ids_ia.repository.UserRepository;
+import com.arsw.ids_ia.service.ActiveMeetingRegistry;
+import com.arsw.ids_ia.service.AlertSeverityCounters;
+import com.arsw.ids_ia.service.MeetingSnapshot;
+import com.arsw.ids_ia.utils.enums.Role;
+import com.arsw.ids_ia.ws.TrafficSocketHandler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:meetings;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MeetingServiceImpl.class, ActiveMeetingRegistry.class, AlertSeverityCounters.class,
+        MeetingParticipantCountTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MeetingParticipantCountTest {
+
+    private static final int JOINERS = 24;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private MeetingServiceImpl meetingService;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ActiveMeetingRegistry activeMeetings;
+
+    @MockitoBean
+    private TrafficSocketHandler socketHandler;
+
+    @Test
+    void concurrentJoinsAndLeavesKeepStoredCountExact() throws Exception {
+        User admin = userRepository.save(User.builder().name("admin").email("admin@ids.test").role(Role.ADMIN).build());
+        Meeting meeting = meetingService.createMeeting(
+                CreateMeetingRequest.builder().title("War room").build(), admin.getEmail());
+        List<String> emails = IntStream.range(0, JOINERS)
+                .mapToObj(i -> userRepository.save(User.builder().name("u" + i).email("u" + i + "@ids.test").role(Role.USER).build()).getEmail())
+                .toList();
+
+        // every user joins twice at the same time; the second attempt must not count
+        List<Callable<Object>> joins = new ArrayList<>();
+        for (String email : emails) {
+            joins.add(() -> meetingService.joinMeeting(new JoinMeetingRequest(meeting.getCode()), email));
+            joins.add(() -> meetingService.joinMeeting(new JoinMeetingRequest(meeting.getCode()), email));
+        }
+        runConcurrently(joins);
+        assertThat(meetingRepository.findParticipantCount(meeting.getId())).isEqualTo(JOINERS + 1);
+        assertThat(membershipRows(meeting.getId())).isEqualTo(JOINERS + 1);
+
+        List<Callable<Object>> leaves = new ArrayList<>();
+        for (String email : emails.subList(0, JOINERS / 2)) {
+            leaves.add(() -> meetingService.leaveMeeting(meeting.getId(), email));
+            leaves.add(() -> meetingService.leaveMeeting(meeting.getId(), email));
+        }
+        runConcurrently(leaves);
+        assertThat(meetingRepository.findParticipantCount(meeting.getId())).isEqualTo(JOINERS / 2 + 1);
+        assertThat(membershipRows(meeting.getId())).isEqualTo(JOINERS / 2 + 1);
+
+        // a rebuild from the database agrees with the incrementally maintained registry
+        activeMeetings.rebuild();
+        assertThat(activeMeetings.byId(meeting.getId())).get()
+                .returns(JOINERS / 2 + 1, MeetingSnapshot::participantCount)
+                .returns(meeting.getCode(), MeetingSnapshot::code);
+    }
+
+    /**
+     * Join storm: 100 responders join the same war room at once and every one of them is counted
+     * exactly once. Join latency under this load is measured by LoadHarness ({@code -Dload.join-storm=100}).
+     */
+    @Test
+    void joinStormOf100SimultaneousResponders() throws Exception {
+        int responders = 100;
+        User admin = userRepository.save(User.builder().name("storm-admin").email("storm-admin@ids.test").role(Role.ADMIN).build());
+        Meeting meeting = meetingService.createMeeting(
+                CreateMeetingRequest.builder().title("Join storm").build(), admin.getEmail());
+        List<Callable<Object>> joins = IntStream.range(0, responders)
+                .mapToObj(i -> userRepository.save(User.builder().name("r" + i).email("r" + i + "@ids.test").role(Role.USER).build()).getEmail())
+                .<Callable<Object>>map(email -> () -> meetingService.joinMeeting(new JoinMeetingRequest(meeting.getCode()), email))
+                .toList();
+
+        List<Object> outcomes = runConcurrently(joins, responders);
+
+        assertThat(outcomes).noneMatch(RuntimeException.class::isInstance);
+        assertThat(meetingRepository.findParticipantCount(meeting.getId())).isEqualTo(responders + 1);
+        assertThat(membershipRows(meeting.getId())).isEqualTo(responders + 1);
+    }
+
+    private int membershipRows(Long meetingId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM meeting_participants WHERE meeting_id = ?", Integer.class, meetingId);
+    }
+
+    private static List<Object> runConcurrently(List<Callable<Object>> tasks) throws Exception {
+        return runConcurrently(tasks, 8);
+    }
+
+    private static List<Object> runConcurrently(List<Callable<Object>> tasks, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (Callable<Object> task : tasks) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        return task.call();
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+            start.countDown();
+            List<Object> outcomes = new ArrayList<>(futures.size());
+            for (Future<Object> future : futures) {
+                outcomes.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return outcomes;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.arsw.ids_ia.utils.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedTtlCacheTest {
+
+    private final BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(2, Duration.ofMinutes(1));
+
+    @Test
+    void evictsTheOldestInsertionOnceFull() {
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isEqualTo(2);
+        assertThat(cache.get("c")).isEqualTo(3);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void overwriteKeepsTheOriginalPlaceInLine() {
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("a", 10);
+        cache.put("c", 3);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isEqualTo(2);
+        assertThat(cache.get("c")).isEqualTo(3);
+    }
+
+    @Test
+    void keyPutAgainAfterInvalidateIsNotEvictedByItsStaleQueueEntry() {
+        cache.put("a", 1);
+        cache.invalidate("a");
+        cache.put("b", 2);
+        cache.put("a", 10);
+        cache.put("c", 3);
+
+        // b is the oldest live entry; the first "a" in the queue no longer refers to anything
+        assertThat(cache.get("a")).isEqualTo(10);
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo(3);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void repeatedInvalidateAndPutStaysWithinCapacity() {
+        for (int i = 0; i < 1000; i++) {
+            cache.put("hot", i);
+            cache.invalidate("hot");
+        }
+        cache.put("hot", -1);
+        cache.put("other", 0);
+
+        assertThat(cache.get("hot")).isEqualTo(-1);
+        assertThat(cache.get("other")).isZero();
+        assertThat(cache.evictionCount()).isZero();
+    }
+
+    @Test
+    void expiredEntriesReadAsMisses() throws InterruptedException {
+        cache.put("short", 1, Duration.ofMillis(1));
+        cache.put("long", 2);
+        Thread.sleep(20);
+
+        assertThat(cache.get("short")).isNull();
+        assertThat(cache.get("long")).isEqualTo(2);
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void nonPositiveTtlIsNotStored() {
+        cache.put("zero", 1, Duration.ZERO);
+        cache.put("negative", 2, Duration.ofSeconds(-1));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThatThrownBy(() -> new BoundedTtlCache<String, Integer>(0, Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,68 @@
+package com.arsw.ids_ia.ws;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.arsw.ids_ia.ws.event.AlertBatchEvent;
+import com.arsw.ids_ia.ws.event.AlertEvent;
+import com.arsw.ids_ia.ws.event.AlertPayload;
+import com.arsw.ids_ia.ws.event.WsEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AlertBroadcastCoalescerTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<WsEvent> sent = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void quietTrafficIsSentImmediatelyAndBurstIsMergedInOrder() throws Exception {
+        AlertBroadcastCoalescer coalescer = coalescer(Duration.ofSeconds(3));
+
+        coalescer.submit(alert(0));
+        assertThat(sent).hasSize(1).first().isInstanceOf(AlertEvent.class);
+
+        IntStream.rangeClosed(1, 20).forEach(i -> coalescer.submit(alert(i)));
+        assertThat(sent).hasSize(1);
+
+        awaitFrames(2);
+        assertThat(sent.get(1)).isInstanceOf(AlertBatchEvent.class);
+        assertThat(((AlertBatchEvent) sent.get(1)).alerts()).extracting(AlertPayload::id)
+                .containsExactlyElementsOf(IntStream.rangeClosed(1, 20).mapToObj(Long::valueOf).toList());
+    }
+
+    private AlertBroadcastCoalescer coalescer(Duration window) {
+        TrafficSocketHandler handler = mock(TrafficSocketHandler.class);
+        doAnswer(inv -> sent.add(inv.getArgument(0))).when(handler).broadcastEvent(any());
+        return new AlertBroadcastCoalescer(handler, scheduler, new SimpleMeterRegistry(), window, 500);
+    }
+
+    private void awaitFrames(int count) throws InterruptedException {
+        Instant deadline = Instant.now().plusSeconds(10);
+        while (sent.size() < count && Instant.now().isBefore(deadline)) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static AlertPayload alert(long id) {
+        return new AlertPayload(id, "PKT-" + id, "INC-1", "high", 0.9, "v1", "v1", Instant.now());
+    }
+}
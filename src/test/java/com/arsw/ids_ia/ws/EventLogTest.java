@@ -0,0 +1,73 @@
+package com.arsw.ids_ia.ws;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+
+import com.arsw.ids_ia.ws.event.WarRoomResolvedEvent;
+
+class EventLogTest {
+
+    private final EventLog log = new EventLog(4);
+
+    @Test
+    void positionAtTheLastEventHasNothingToReplay() {
+        append(log, 3);
+
+        assertThat(log.since(log.lastSeq())).isEmpty();
+    }
+
+    @Test
+    void positionJustBeforeTheOldestBufferedEventReplaysTheWholeBuffer() {
+        append(log, 6);
+
+        assertThat(log.since(log.oldestSeq() - 1)).extracting(EventLog.Entry::seq)
+                .containsExactly(log.lastSeq() - 3, log.lastSeq() - 2, log.lastSeq() - 1, log.lastSeq());
+    }
+
+    @Test
+    void positionWhoseNextEventWasOverwrittenNeedsAResync() {
+        long base = log.lastSeq();
+        append(log, 6);
+
+        // base + 2 was overwritten by base + 6; the client at base + 1 would miss it
+        assertThat(log.since(base + 1)).isNull();
+        assertThat(log.since(base)).isNull();
+    }
+
+    @Test
+    void positionAheadOfTheLogNeedsAResync() {
+        append(log, 2);
+
+        assertThat(log.since(log.lastSeq() + 1)).isNull();
+    }
+
+    @Test
+    void positionFromAPreviousServerRunNeedsAResync() {
+        EventLog previous = new EventLog(4);
+        append(previous, 3);
+        EventLog restarted;
+        do {
+            restarted = new EventLog(4);
+        } while (restarted.lastSeq() == previous.lastSeq() - 3);
+        append(restarted, 3);
+
+        assertThat(restarted.since(previous.lastSeq())).isNull();
+        assertThat(restarted.since(previous.oldestSeq())).isNull();
+    }
+
+    @Test
+    void emptyLogReplaysNothingFromItsStartingPosition() {
+        assertThat(log.since(log.lastSeq())).isEmpty();
+        assertThat(log.since(log.lastSeq() - 1)).isNull();
+    }
+
+    private static void append(EventLog log, int count) {
+        for (int i = 0; i < count; i++) {
+            long seq = log.nextSeq();
+            log.append(new EventLog.Entry(seq, new WarRoomResolvedEvent(seq, "2025-01-01T00:00:00Z", 60L),
+                    new TextMessage("{\"seq\":" + seq + "}")));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.arsw.ids_ia.ws;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+class SessionOutboxTest {
+
+    private final Queue<Runnable> pending = new ArrayDeque<>();
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+
+    @Test
+    void fullQueueDropsNewFramesAndCountsThem() throws IOException {
+        SessionOutbox outbox = new SessionOutbox(session("s1"), 2, pending::add);
+
+        assertThat(outbox.offer(frame("1"))).isTrue();
+        assertThat(outbox.offer(frame("2"))).isTrue();
+        assertThat(outbox.offer(frame("3"))).isFalse();
+        assertThat(outbox.offer(frame("4"))).isFalse();
+
+        assertThat(outbox.depth()).isEqualTo(2);
+        assertThat(outbox.droppedCount()).isEqualTo(2);
+        // one drain task no matter how many frames were queued
+        assertThat(pending).hasSize(1);
+
+        pending.poll().run();
+        assertThat(sent).containsExactly("1", "2");
+        assertThat(outbox.depth()).isZero();
+    }
+
+    @Test
+    void overflowingSessionReportsHowLongItHasBeenStalledUntilItCatchesUp() throws IOException {
+        SessionOutbox outbox = new SessionOutbox(session("s1"), 1, pending::add);
+        outbox.offer(frame("1"));
+        assertThat(outbox.stalledForNanos(System.nanoTime())).isZero();
+
+        outbox.offer(frame("2"));
+        long later = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        assertThat(outbox.stalledForNanos(later)).isGreaterThanOrEqualTo(Duration.ofSeconds(5).toNanos());
+
+        pending.poll().run();
+        assertThat(outbox.offer(frame("3"))).isTrue();
+        assertThat(outbox.stalledForNanos(later)).isZero();
+    }
+
+    @Test
+    void sessionStuckInASingleSendCountsAsStalled() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("s1");
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(inv -> {
+            sending.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(session).sendMessage(any());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            SessionOutbox outbox = new SessionOutbox(session, 4, executor);
+            outbox.offer(frame("1"));
+            assertThat(sending.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(outbox.stalledForNanos(System.nanoTime() + Duration.ofSeconds(1).toNanos()))
+                    .isGreaterThanOrEqualTo(Duration.ofSeconds(1).toNanos());
+            release.countDown();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void closeDiscardsQueuedFramesAndClosesTheSession() throws IOException {
+        WebSocketSession session = session("s1");
+        SessionOutbox outbox = new SessionOutbox(session, 4, pending::add);
+        outbox.offer(frame("1"));
+
+        outbox.close(CloseStatus.SESSION_NOT_RELIABLE);
+
+        assertThat(outbox.depth()).isZero();
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Test
+    void framesEnqueuedWhileADrainFinishesAreStillDelivered() throws Exception {
+        int producers = 4;
+        int perProducer = 5_000;
+        ExecutorService sender = Executors.newFixedThreadPool(2);
+        ExecutorService producerPool = Executors.newFixedThreadPool(producers);
+        try {
+            SessionOutbox outbox = new SessionOutbox(session("s1"), producers * perProducer, sender);
+            CountDownLatch start = new CountDownLatch(1);
+            for (int p = 0; p < producers; p++) {
+                String prefix = p + ":";
+                producerPool.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < perProducer; i++) {
+                        outbox.offer(frame(prefix + i));
+                        if (i % 100 == 0) {
+                            // let the drain empty the queue so later offers race its exit
+                            Thread.yield();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+
+            Instant deadline = Instant.now().plusSeconds(20);
+            while (sent.size() < producers * perProducer && Instant.now().isBefore(deadline)) {
+                Thread.sleep(10);
+            }
+
+            assertThat(sent).hasSize(producers * perProducer);
+            assertThat(outbox.droppedCount()).isZero();
+            for (int p = 0; p < producers; p++) {
+                String prefix = p + ":";
+                assertThat(sent.stream().filter(s -> s.startsWith(prefix)).map(s -> Integer.parseInt(s.substring(prefix.length()))))
+                        .isSorted();
+            }
+        } finally {
+            producerPool.shutdownNow();
+            sender.shutdownNow();
+        }
+    }
+
+    private WebSocketSession session(String id) throws IOException {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(inv -> sent.add(inv.<TextMessage>getArgument(0).getPayload())).when(session).sendMessage(any());
+        return session;
+    }
+
+    private static TextMessage frame(String payload) {
+        return new TextMessage(payload);
+    }
+}
@@ -0,0 +1,252 @@
+package com.arsw.ids_ia.ws;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.arsw.ids_ia.ws.event.AlertBatchEvent;
+import com.arsw.ids_ia.ws.event.AlertEvent;
+import com.arsw.ids_ia.ws.event.AlertPayload;
+import com.arsw.ids_ia.ws.event.WarRoomResolvedEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TrafficSocketHandlerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @SuppressWarnings("unchecked")
+    private final TrafficSocketHandler handler = new TrafficSocketHandler(Runnable::run, meterRegistry,
+            mock(ObjectProvider.class), 3, Duration.ofSeconds(10), 8);
+
+    @Test
+    void reconnectWithinTheBufferReplaysTheMissedEventsInOrder() throws Exception {
+        List<JsonNode> live = connect("live", null);
+        broadcast(3);
+        long firstSeq = live.get(0).get("seq").asLong();
+
+        List<JsonNode> resumed = connect("resumed", firstSeq);
+
+        assertThat(resumed).extracting(frame -> frame.get("seq").asLong())
+                .containsExactly(firstSeq + 1, firstSeq + 2);
+        assertThat(resumed).extracting(frame -> frame.get("type").asText()).containsOnly(WarRoomResolvedEvent.TYPE);
+        assertThat(resumes("replayed")).isEqualTo(1);
+    }
+
+    @Test
+    void reconnectAtTheLatestEventGetsOnlyLiveEvents() throws Exception {
+        List<JsonNode> live = connect("live", null);
+        broadcast(2);
+
+        List<JsonNode> resumed = connect("resumed", live.get(1).get("seq").asLong());
+        assertThat(resumed).isEmpty();
+
+        broadcast(1);
+        assertThat(resumed).singleElement()
+                .satisfies(frame -> assertThat(frame.get("seq").asLong()).isEqualTo(live.get(2).get("seq").asLong()));
+    }
+
+    @Test
+    void reconnectPastTheBufferGetsAResync() throws Exception {
+        List<JsonNode> live = connect("live", null);
+        broadcast(10);
+        long firstSeq = live.get(0).get("seq").asLong();
+        long lastSeq = live.get(9).get("seq").asLong();
+
+        List<JsonNode> resumed = connect("resumed", firstSeq);
+
+        assertThat(resumed).singleElement().satisfies(frame -> {
+            assertThat(frame.get("type").asText()).isEqualTo("resync");
+            assertThat(frame.get("seq").asLong()).isEqualTo(lastSeq);
+        });
+        assertThat(resumes("resync")).isEqualTo(1);
+    }
+
+    @Test
+    void gapLargerThanTheSessionQueueGetsAResyncEvenIfBuffered() throws Exception {
+        List<JsonNode> live = connect("live", null);
+        broadcast(5);
+
+        // five buffered events would not fit in a queue of three
+        List<JsonNode> resumed = connect("resumed", live.get(0).get("seq").asLong() - 1);
+
+        assertThat(resumed).singleElement()
+                .satisfies(frame -> assertThat(frame.get("type").asText()).isEqualTo("resync"));
+    }
+
+    @Test
+    void positionFromAnotherServerRunOrUnparseableGetsAResync() throws Exception {
+        broadcast(2);
+
+        assertThat(connect("restarted", 42L)).singleElement()
+                .satisfies(frame -> assertThat(frame.get("type").asText()).isEqualTo("resync"));
+        assertThat(connect("garbled", "abc")).singleElement()
+                .satisfies(frame -> assertThat(frame.get("type").asText()).isEqualTo("resync"));
+        assertThat(resumes("resync")).isEqualTo(2);
+    }
+
+    @Test
+    void connectWithoutAPositionReplaysNothing() throws Exception {
+        broadcast(2);
+
+        assertThat(connect("fresh", null)).isEmpty();
+        assertThat(resumes("replayed") + resumes("resync")).isZero();
+    }
+
+    @Test
+    void sessionThatKeepsOverflowingIsEvictedAndClosed() throws Exception {
+        SimpleMeterRegistry stallingMetrics = new SimpleMeterRegistry();
+        @SuppressWarnings("unchecked")
+        TrafficSocketHandler stalling = new TrafficSocketHandler(task -> { }, stallingMetrics, mock(ObjectProvider.class),
+                2, Duration.ofMillis(1), 8);
+        WebSocketSession slow = mock(WebSocketSession.class);
+        when(slow.getId()).thenReturn("slow");
+        when(slow.isOpen()).thenReturn(true);
+        stalling.afterConnectionEstablished(slow);
+
+        for (int i = 0; i < 5; i++) {
+            stalling.broadcastLocal(new WarRoomResolvedEvent((long) i, "2025-01-01T00:00:00Z", 60L));
+        }
+        assertThat(stallingMetrics.get("ids.ws.outbound.dropped").counter().count()).isEqualTo(3);
+        assertThat(stallingMetrics.get("ids.ws.sessions").gauge().value()).isEqualTo(1);
+        Thread.sleep(20);
+        stalling.evictSlowConsumers();
+
+        verify(slow).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(stallingMetrics.get("ids.ws.sessions.evicted").counter().count()).isEqualTo(1);
+        assertThat(stallingMetrics.get("ids.ws.sessions").gauge().value()).isZero();
+    }
+
+    @Test
+    void malformedOrUnknownMessagesGetAnErrorAndKeepTheSubscription() throws Exception {
+        List<JsonNode> received = connect("client", null);
+        WebSocketSession session = session("client");
+        handler.handleTextMessage(session, new TextMessage("{\"action\":\"subscribe\",\"severities\":[\"high\"]}"));
+        received.clear();
+
+        handler.handleTextMessage(session, new TextMessage("not json"));
+        handler.handleTextMessage(session, new TextMessage("{\"action\":\"listen\"}"));
+        handler.handleTextMessage(session, new TextMessage("{\"action\":\"subscribe\",\"severities\":\"low\"}"));
+        handler.handleTextMessage(session, new TextMessage("{\"action\":\"subscribe\",\"minScore\":\"high\"}"));
+
+        assertThat(received).hasSize(4).allSatisfy(frame -> {
+            assertThat(frame.get("type").asText()).isEqualTo("error");
+            assertThat(frame.get("message").asText()).startsWith("Invalid message: ");
+        });
+        broadcastAlerts(alert(1, "low", "INC-1"), alert(2, "high", "INC-1"));
+        assertThat(alertIds(received.subList(4, received.size()))).containsExactly(2L);
+    }
+
+    @Test
+    void subscriptionFiltersAlertsAndBatchesButNotWarRoomEvents() throws Exception {
+        List<JsonNode> received = connect("client", null);
+        handler.handleTextMessage(session("client"), new TextMessage(
+                "{\"action\":\"SUBSCRIBE\",\"severities\":[\"Critical\",\"high\"],\"incidentId\":\"INC-42\"}"));
+
+        assertThat(received).singleElement().satisfies(frame -> {
+            assertThat(frame.get("type").asText()).isEqualTo("subscription");
+            assertThat(frame.get("subscription").get("incidentId").asText()).isEqualTo("INC-42");
+        });
+        received.clear();
+
+        broadcastAlerts(alert(1, "high", "INC-42"));
+        broadcastAlerts(alert(2, "low", "INC-42"));
+        broadcastAlerts(alert(3, "critical", "INC-7"));
+        broadcastAlerts(alert(4, "CRITICAL", "INC-42"), alert(5, "low", "INC-42"), alert(6, "high", "INC-7"));
+        broadcast(1);
+
+        assertThat(received).extracting(frame -> frame.get("type").asText())
+                .containsExactly(AlertEvent.TYPE, AlertBatchEvent.TYPE, WarRoomResolvedEvent.TYPE);
+        assertThat(alertIds(received)).containsExactly(1L, 4L);
+    }
+
+    @Test
+    void unsubscribeRestoresTheFullFeed() throws Exception {
+        List<JsonNode> received = connect("client", null);
+        WebSocketSession session = session("client");
+        handler.handleTextMessage(session, new TextMessage("{\"action\":\"subscribe\",\"severities\":[\"high\"]}"));
+        handler.handleTextMessage(session, new TextMessage("{\"action\":\"unsubscribe\"}"));
+        received.clear();
+
+        broadcastAlerts(alert(1, "low", "INC-1"), alert(2, "high", "INC-1"));
+
+        assertThat(alertIds(received)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void messagesFromUnknownSessionsAreIgnored() throws Exception {
+        WebSocketSession stranger = session("stranger");
+
+        handler.handleTextMessage(stranger, new TextMessage("not json"));
+
+        verify(stranger, never()).sendMessage(any());
+    }
+
+    private List<JsonNode> connect(String id, Object lastSeq) throws IOException {
+        List<JsonNode> received = new ArrayList<>();
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getUri()).thenReturn(URI.create("ws://localhost/ws/traffic" + (lastSeq == null ? "" : "?lastSeq=" + lastSeq)));
+        doAnswer(inv -> received.add(mapper.readTree(inv.<TextMessage>getArgument(0).getPayload())))
+                .when(session).sendMessage(any());
+        handler.afterConnectionEstablished(session);
+        return received;
+    }
+
+    private static WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        return session;
+    }
+
+    private void broadcastAlerts(AlertPayload... alerts) {
+        handler.broadcastLocal(alerts.length == 1 ? new AlertEvent(alerts[0]) : new AlertBatchEvent(List.of(alerts)));
+    }
+
+    private static List<Long> alertIds(List<JsonNode> frames) {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode frame : frames) {
+            if (frame.has("alert")) {
+                ids.add(frame.get("alert").get("id").asLong());
+            }
+            frame.path("alerts").forEach(alert -> ids.add(alert.get("id").asLong()));
+        }
+        return ids;
+    }
+
+    private static AlertPayload alert(long id, String severity, String incidentId) {
+        return new AlertPayload(id, "PKT-" + id, incidentId, severity, 0.9, "v1", "v1",
+                Instant.parse("2025-01-01T00:00:00Z"));
+    }
+
+    private void broadcast(int count) {
+        for (int i = 0; i < count; i++) {
+            handler.broadcastLocal(new WarRoomResolvedEvent((long) i, "2025-01-01T00:00:00Z", 60L));
+        }
+    }
+
+    private double resumes(String result) {
+        return meterRegistry.get("ids.ws.resumes").tag("result", result).counter().count();
+    }
+}
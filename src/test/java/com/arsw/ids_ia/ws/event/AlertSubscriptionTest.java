@@ -0,0 +1,76 @@
+package com.arsw.ids_ia.ws.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class AlertSubscriptionTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void parsesAndNormalizesAllFilterFields() throws Exception {
+        AlertSubscription subscription = AlertSubscription.fromJson(json(
+                "{\"action\":\"subscribe\",\"severities\":[\" Critical \",\"HIGH\",\"\"],\"minScore\":0.8,"
+                        + "\"modelVersion\":\" v2 \",\"incidentId\":\"INC-42\",\"unknown\":true}"));
+
+        assertThat(subscription).isEqualTo(new AlertSubscription(Set.of("critical", "high"), 0.8, "v2", "INC-42"));
+        assertThat(subscription.isAll()).isFalse();
+    }
+
+    @Test
+    void missingNullAndBlankFieldsMatchEverything() throws Exception {
+        assertThat(AlertSubscription.fromJson(json("{\"action\":\"subscribe\"}"))).isEqualTo(AlertSubscription.ALL);
+        assertThat(AlertSubscription.fromJson(json(
+                "{\"severities\":null,\"minScore\":null,\"modelVersion\":\"  \",\"incidentId\":null}")).isAll()).isTrue();
+        assertThat(AlertSubscription.fromJson(json("{\"severities\":[]}")).isAll()).isTrue();
+    }
+
+    @Test
+    void rejectsMalformedFilters() {
+        assertThatThrownBy(() -> AlertSubscription.fromJson(json("{\"severities\":\"high\"}")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AlertSubscription.fromJson(json("{\"severities\":[" + "\"a\",".repeat(16) + "\"b\"]}")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AlertSubscription.fromJson(json("{\"minScore\":\"0.8\"}")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void severityFilterIgnoresTheAlertsCaseAndSkipsAlertsWithoutSeverity() {
+        AlertSubscription subscription = new AlertSubscription(Set.of("critical", "high"), null, null, null);
+
+        assertThat(subscription.matches(alert("HIGH", 0.5, "v1", "INC-1"))).isTrue();
+        assertThat(subscription.matches(alert("critical", 0.5, "v1", "INC-1"))).isTrue();
+        assertThat(subscription.matches(alert("low", 0.5, "v1", "INC-1"))).isFalse();
+        assertThat(subscription.matches(alert(null, 0.5, "v1", "INC-1"))).isFalse();
+    }
+
+    @Test
+    void incidentScoreAndModelFiltersMustAllMatch() {
+        AlertSubscription subscription = new AlertSubscription(Set.of(), 0.8, "v2", "INC-42");
+
+        assertThat(subscription.matches(alert("low", 0.8, "v2", "INC-42"))).isTrue();
+        assertThat(subscription.matches(alert("low", 0.9, "v2", "INC-7"))).isFalse();
+        assertThat(subscription.matches(alert("low", 0.79, "v2", "INC-42"))).isFalse();
+        assertThat(subscription.matches(alert("low", null, "v2", "INC-42"))).isFalse();
+        assertThat(subscription.matches(alert("low", 0.9, "v1", "INC-42"))).isFalse();
+        assertThat(AlertSubscription.ALL.matches(alert(null, null, null, null))).isTrue();
+    }
+
+    private JsonNode json(String text) throws Exception {
+        return mapper.readTree(text);
+    }
+
+    private static AlertPayload alert(String severity, Double score, String modelVersion, String incidentId) {
+        return new AlertPayload(1L, "PKT-1", incidentId, severity, score, modelVersion, modelVersion,
+                Instant.parse("2025-01-01T00:00:00Z"));
+    }
+}